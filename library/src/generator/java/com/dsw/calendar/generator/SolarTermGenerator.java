@@ -0,0 +1,279 @@
+package com.dsw.calendar.generator;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * 生成节气日期表SolarTermTable.java, 由library模块的generateSolarTermTable任务调用
+ *
+ * 太阳视黄经按VSOP87(Meeus《天文算法》附录III的截断项)计算, 加上FK5修正、章动和光行差,
+ * 牛顿迭代求出黄经为15°整数倍的时刻, 减去ΔT(Espenak-Meeus多项式)后换算为北京时间(UTC+8)取日期。
+ * 每个节气的日期号与该节气在全部年份中的最小日期号之差不超过3, 每个节气占2位, 一年24个节气压缩为一个long。
+ */
+public class SolarTermGenerator {
+    private static final double DEG = Math.PI / 180;
+
+    /** VSOP87地球日心黄经的周期项, 每行为 A, B, C, 单位1e-8弧度 */
+    private static final double[][] L0 = {
+            {175347046, 0, 0}, {3341656, 4.6692568, 6283.0758500}, {34894, 4.62610, 12566.15170},
+            {3497, 2.7441, 5753.3849}, {3418, 2.8289, 3.5231}, {3136, 3.6277, 77713.7715},
+            {2676, 4.4181, 7860.4194}, {2343, 6.1352, 3930.2097}, {1324, 0.7425, 11506.7698},
+            {1273, 2.0371, 529.6910}, {1199, 1.1096, 1577.3435}, {990, 5.233, 5884.927},
+            {902, 2.045, 26.298}, {857, 3.508, 398.149}, {780, 1.179, 5223.694},
+            {753, 2.533, 5507.553}, {505, 4.583, 18849.228}, {492, 4.205, 775.523},
+            {357, 2.920, 0.067}, {317, 5.849, 11790.629}, {284, 1.899, 796.298},
+            {271, 0.315, 10977.079}, {243, 0.345, 5486.778}, {206, 4.806, 2544.314},
+            {205, 1.869, 5573.143}, {202, 2.458, 6069.777}, {156, 0.833, 213.299},
+            {132, 3.411, 2942.463}, {126, 1.083, 20.775}, {115, 0.645, 0.980},
+            {103, 0.636, 4694.003}, {102, 0.976, 15720.839}, {102, 4.267, 7.114},
+            {99, 6.21, 2146.17}, {98, 0.68, 155.42}, {86, 5.98, 161000.69},
+            {85, 1.30, 6275.96}, {85, 3.67, 71430.70}, {80, 1.81, 17260.15},
+            {79, 3.04, 12036.46}, {75, 1.76, 5088.63}, {74, 3.50, 3154.69},
+            {74, 4.68, 801.82}, {70, 0.83, 9437.76}, {62, 3.98, 8827.39},
+            {61, 1.82, 7084.90}, {57, 2.78, 6286.60}, {56, 4.39, 14143.50},
+            {56, 3.47, 6279.55}, {52, 0.19, 12139.55}, {52, 1.33, 1748.02},
+            {51, 0.28, 5856.48}, {49, 0.49, 1194.45}, {41, 5.37, 8429.24},
+            {41, 2.40, 19651.05}, {39, 6.17, 10447.39}, {37, 6.04, 10213.29},
+            {37, 2.57, 1059.38}, {36, 1.71, 2352.87}, {36, 1.78, 6812.77},
+            {33, 0.59, 17789.85}, {30, 0.44, 83996.85}, {30, 2.74, 1349.87},
+            {25, 3.16, 4690.48}};
+    private static final double[][] L1 = {
+            {628331966747.0, 0, 0}, {206059, 2.678235, 6283.075850}, {4303, 2.6351, 12566.1517},
+            {425, 1.590, 3.523}, {119, 5.796, 26.298}, {109, 2.966, 1577.344},
+            {93, 2.59, 18849.23}, {72, 1.14, 529.69}, {68, 1.87, 398.15},
+            {67, 4.41, 5507.55}, {59, 2.89, 5223.69}, {56, 2.17, 155.42},
+            {45, 0.40, 796.30}, {36, 0.47, 775.52}, {29, 2.65, 7.11},
+            {21, 5.34, 0.98}, {19, 1.85, 5486.78}, {19, 4.97, 213.30},
+            {17, 2.99, 6275.96}, {16, 0.03, 2544.31}, {16, 1.43, 2146.17},
+            {15, 1.21, 10977.08}, {12, 2.83, 1748.02}, {12, 3.26, 5088.63},
+            {12, 5.27, 1194.45}, {12, 2.08, 4694.00}, {11, 0.77, 553.57},
+            {10, 1.30, 6286.60}, {10, 4.24, 1349.87}, {9, 2.70, 242.73},
+            {9, 5.64, 951.72}, {8, 5.30, 2352.87}, {6, 2.65, 9437.76},
+            {6, 4.67, 4690.48}};
+    private static final double[][] L2 = {
+            {52919, 0, 0}, {8720, 1.0721, 6283.0758}, {309, 0.867, 12566.152},
+            {27, 0.05, 3.52}, {16, 5.19, 26.30}, {16, 3.68, 155.42},
+            {10, 0.76, 18849.23}, {9, 2.06, 77713.77}, {7, 0.83, 775.52},
+            {5, 4.66, 1577.34}, {4, 1.03, 7.11}, {4, 3.44, 5573.14},
+            {3, 5.14, 796.30}, {3, 6.05, 5507.55}, {3, 1.19, 242.73},
+            {3, 6.12, 529.69}, {3, 0.31, 398.15}, {3, 2.28, 553.57},
+            {2, 4.38, 5223.69}, {2, 3.75, 0.98}};
+    private static final double[][] L3 = {
+            {289, 5.844, 6283.076}, {35, 0, 0}, {17, 5.49, 12566.15},
+            {3, 5.20, 155.42}, {1, 4.72, 3.52}, {1, 5.30, 18849.23},
+            {1, 5.97, 242.73}};
+    private static final double[][] L4 = {
+            {114, 3.142, 0}, {8, 4.13, 6283.08}, {1, 3.84, 12566.15}};
+    private static final double[][] L5 = {
+            {1, 3.14, 0}};
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("usage: SolarTermGenerator <output file> <first year> <last year>");
+            System.exit(1);
+        }
+        File output = new File(args[0]);
+        int firstYear = Integer.parseInt(args[1]);
+        int lastYear = Integer.parseInt(args[2]);
+        int years = lastYear - firstYear + 1;
+        int[][] days = new int[years][24];
+        int[] base = new int[24];
+        for (int term = 0; term < 24; term++) {
+            base[term] = Integer.MAX_VALUE;
+        }
+        for (int i = 0; i < years; i++) {
+            for (int term = 0; term < 24; term++) {
+                days[i][term] = termDay(firstYear + i, term);
+                base[term] = Math.min(base[term], days[i][term]);
+            }
+        }
+        long[] packed = new long[years];
+        for (int i = 0; i < years; i++) {
+            for (int term = 0; term < 24; term++) {
+                int offset = days[i][term] - base[term];
+                if (offset > 3) {
+                    throw new IllegalStateException("term " + term + " of " + (firstYear + i) + " out of range");
+                }
+                packed[i] |= (long) offset << (2 * term);
+            }
+        }
+        write(output, firstYear, lastYear, base, packed);
+    }
+
+    /**
+     * 某年第term个节气(0为小寒, 按时间顺序)在北京时间的日期号
+     */
+    static int termDay(int year, int term) {
+        int month = term / 2 + 1;
+        /** 小寒的太阳视黄经为285°, 之后每个节气加15° */
+        double longitude = (285 + 15 * term) % 360;
+        /** 节在每月6日前后, 中气在21日前后, 从该日开始迭代 */
+        double jde = julianDay(year, month, term % 2 == 0 ? 6 : 21);
+        for (int i = 0; i < 20; i++) {
+            double diff = longitude - apparentLongitude(jde);
+            diff -= 360 * Math.floor((diff + 180) / 360);
+            jde += diff * 365.2422 / 360;
+            if (Math.abs(diff) < 1e-7) {
+                break;
+            }
+        }
+        double beijing = jde - deltaT(year + (month - 0.5) / 12) / 86400 + 8.0 / 24;
+        int[] date = gregorian(beijing);
+        if (date[0] != year || date[1] != month) {
+            throw new IllegalStateException("term " + term + " of " + year + " not in month " + month);
+        }
+        return date[2];
+    }
+
+    /**
+     * 力学时jde时刻太阳的视黄经, 单位度
+     */
+    static double apparentLongitude(double jde) {
+        double tau = (jde - 2451545.0) / 365250;
+        double l = (series(L0, tau) + tau * (series(L1, tau) + tau * (series(L2, tau)
+                + tau * (series(L3, tau) + tau * (series(L4, tau) + tau * series(L5, tau)))))) / 1e8;
+        double sun = l / DEG + 180;
+        double t = tau * 10;
+        /** FK5修正 */
+        sun -= 0.09033 / 3600;
+        /** 章动 */
+        double omega = (125.04452 - 1934.136261 * t) * DEG;
+        double meanSun = (280.4665 + 36000.7698 * t) * DEG;
+        double meanMoon = (218.3165 + 481267.8813 * t) * DEG;
+        double nutation = -17.20 * Math.sin(omega) - 1.32 * Math.sin(2 * meanSun)
+                - 0.23 * Math.sin(2 * meanMoon) + 0.21 * Math.sin(2 * omega);
+        sun += nutation / 3600;
+        /** 光行差 */
+        sun -= 20.4898 / 3600;
+        return sun - 360 * Math.floor(sun / 360);
+    }
+
+    private static double series(double[][] terms, double tau) {
+        double sum = 0;
+        for (double[] term : terms) {
+            sum += term[0] * Math.cos(term[1] + term[2] * tau);
+        }
+        return sum;
+    }
+
+    /**
+     * ΔT = TT - UT, 单位秒, Espenak-Meeus多项式
+     */
+    static double deltaT(double y) {
+        double t;
+        if (y < 1860) {
+            t = y - 1800;
+            return 13.72 - 0.332447 * t + 0.0068612 * t * t + 0.0041116 * t * t * t
+                    - 0.00037436 * Math.pow(t, 4) + 0.0000121272 * Math.pow(t, 5)
+                    - 0.0000001699 * Math.pow(t, 6) + 0.000000000875 * Math.pow(t, 7);
+        } else if (y < 1900) {
+            t = y - 1860;
+            return 7.62 + 0.5737 * t - 0.251754 * t * t + 0.01680668 * t * t * t
+                    - 0.0004473624 * Math.pow(t, 4) + Math.pow(t, 5) / 233174;
+        } else if (y < 1920) {
+            t = y - 1900;
+            return -2.79 + 1.494119 * t - 0.0598939 * t * t + 0.0061966 * t * t * t - 0.000197 * Math.pow(t, 4);
+        } else if (y < 1941) {
+            t = y - 1920;
+            return 21.20 + 0.84493 * t - 0.076100 * t * t + 0.0020936 * t * t * t;
+        } else if (y < 1961) {
+            t = y - 1950;
+            return 29.07 + 0.407 * t - t * t / 233 + t * t * t / 2547;
+        } else if (y < 1986) {
+            t = y - 1975;
+            return 45.45 + 1.067 * t - t * t / 260 - t * t * t / 718;
+        } else if (y < 2005) {
+            t = y - 2000;
+            return 63.86 + 0.3345 * t - 0.060374 * t * t + 0.0017275 * t * t * t
+                    + 0.000651814 * Math.pow(t, 4) + 0.00002373599 * Math.pow(t, 5);
+        } else if (y < 2050) {
+            t = y - 2000;
+            return 62.92 + 0.32217 * t + 0.005589 * t * t;
+        } else if (y < 2150) {
+            double u = (y - 1820) / 100;
+            return -20 + 32 * u * u - 0.5628 * (2150 - y);
+        }
+        double u = (y - 1820) / 100;
+        return -20 + 32 * u * u;
+    }
+
+    /**
+     * 公历日期0时的儒略日
+     */
+    static double julianDay(int year, int month, int day) {
+        if (month <= 2) {
+            year--;
+            month += 12;
+        }
+        int a = year / 100;
+        int b = 2 - a + a / 4;
+        return Math.floor(365.25 * (year + 4716)) + Math.floor(30.6001 * (month + 1)) + day + b - 1524.5;
+    }
+
+    /**
+     * 儒略日对应的公历年、月、日
+     */
+    static int[] gregorian(double jd) {
+        double z = Math.floor(jd + 0.5);
+        double alpha = Math.floor((z - 1867216.25) / 36524.25);
+        double a = z + 1 + alpha - Math.floor(alpha / 4);
+        double b = a + 1524;
+        double c = Math.floor((b - 122.1) / 365.25);
+        double d = Math.floor(365.25 * c);
+        double e = Math.floor((b - d) / 30.6001);
+        int day = (int) (b - d - Math.floor(30.6001 * e));
+        int month = (int) (e < 14 ? e - 1 : e - 13);
+        int year = (int) (month > 2 ? c - 4716 : c - 4715);
+        return new int[]{year, month, day};
+    }
+
+    private static void write(File output, int firstYear, int lastYear, int[] base, long[] packed) throws IOException {
+        output.getParentFile().mkdirs();
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(output), "UTF-8"));
+        try {
+            out.println("package com.dsw.calendar.utils;");
+            out.println();
+            out.println("/**");
+            out.println(" * 节气日期表, 由library模块的generateSolarTermTable任务生成, 不要手工修改");
+            out.println(" *");
+            out.println(" * 每年一个long, 第2 * term位起的两位为第term个节气(0为小寒, 按时间顺序)的日期号与BASE_DAYS[term]之差,");
+            out.println(" * 日期为北京时间。");
+            out.println(" */");
+            out.println("final class SolarTermTable {");
+            out.println("    static final int FIRST_YEAR = " + firstYear + ";");
+            out.println("    static final int LAST_YEAR = " + lastYear + ";");
+            out.println();
+            out.print("    static final byte[] BASE_DAYS = {");
+            for (int term = 0; term < 24; term++) {
+                out.print((term == 0 ? "" : ", ") + base[term]);
+            }
+            out.println("};");
+            out.println();
+            out.println("    static final long[] TERMS = {");
+            for (int i = 0; i < packed.length; i += 4) {
+                StringBuilder line = new StringBuilder("           ");
+                for (int j = i; j < Math.min(i + 4, packed.length); j++) {
+                    line.append(String.format(" 0x%012xL", packed[j]));
+                    if (j < packed.length - 1) {
+                        line.append(',');
+                    }
+                }
+                while (line.length() < 80) {
+                    line.append(' ');
+                }
+                line.append("// ").append(firstYear + i);
+                out.println(line.toString().replaceAll("\\s+//", "  //"));
+            }
+            out.println("    };");
+            out.println();
+            out.println("    private SolarTermTable() {");
+            out.println("    }");
+            out.println("}");
+        } finally {
+            out.close();
+        }
+    }
+}
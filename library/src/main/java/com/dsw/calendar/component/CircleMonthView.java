@@ -4,15 +4,23 @@ import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Path;
+import android.graphics.RectF;
 import android.text.TextUtils;
 import android.util.AttributeSet;
 
+import com.dsw.calendar.entity.SpanEvent;
 import com.dsw.calendar.theme.DefaultDayTheme;
 
 /**
  * Created by Administrator on 2016/8/7.
  */
 public class CircleMonthView extends MonthView {
+    /** 绘制跨天事务时复用的矩形 */
+    private final RectF spanRect = new RectF();
+    /** 横线, 行数或控件大小变化时才重新生成 */
+    private final Path gridPath = new Path();
+    private int gridRows = -1;
+    private float gridWidth, gridHeight;
 
     public CircleMonthView(Context context, AttributeSet attrs) {
         super(context, attrs);
@@ -21,18 +29,22 @@ public class CircleMonthView extends MonthView {
     @Override
     protected void drawLines(Canvas canvas, int rowsCount) {
         int rightX = getWidth();
-        Path path;
-        float startX = 0;
-        float endX = rightX;
+        /** 行高由控件高度得出, 高度变化时横线的位置也要重新生成 */
+        int bottomY = getHeight();
+        if(rowsCount != gridRows || rightX != gridWidth || bottomY != gridHeight){
+            gridRows = rowsCount;
+            gridWidth = rightX;
+            gridHeight = bottomY;
+            gridPath.reset();
+            for(int row = 1; row <= rowsCount ;row++){
+                float startY = row * rowSize;
+                gridPath.moveTo(0, startY);
+                gridPath.lineTo(rightX, startY);
+            }
+        }
         paint.setStyle(Paint.Style.STROKE);
         paint.setColor(theme.colorLine());
-        for(int row = 1; row <= rowsCount ;row++){
-            float startY = row * rowSize;
-            path = new Path();
-            path.moveTo(startX, startY);
-            path.lineTo(endX, startY);
-            canvas.drawPath(path, paint);
-        }
+        canvas.drawPath(gridPath, paint);
     }
 
     @Override
@@ -54,7 +66,7 @@ public class CircleMonthView extends MonthView {
 
     @Override
     protected void drawDecor(Canvas canvas, int column, int row, int year,int month,int day) {
-        if(calendarInfos != null && calendarInfos.size() >0){
+        if(hasCalendarInfos()){
             if(TextUtils.isEmpty(iscalendarInfo(year,month,day)))return;
             paint.setColor(theme.colorDecor());
             paint.setStyle(Paint.Style.FILL);
@@ -72,7 +84,7 @@ public class CircleMonthView extends MonthView {
     @Override
     protected void drawText(Canvas canvas, int column, int row, int year,int month,int day) {
         paint.setTextSize(theme.sizeDay());
-        float startX = columnSize * column + (columnSize - paint.measureText(day+""))/2;
+        float startX = columnSize * column + (columnSize - measureDay(day))/2;
         float startY = rowSize * row + rowSize/2 - (paint.ascent() + paint.descent())/2;
         paint.setStyle(Paint.Style.STROKE);
         String des = iscalendarInfo(year,month,day);
@@ -80,38 +92,54 @@ public class CircleMonthView extends MonthView {
             if(!TextUtils.isEmpty(des)){//desc不为空的时候
                 int dateY = (int) (startY - 10);
                 paint.setColor(theme.colorSelectDay());
-                canvas.drawText(day+"", startX, dateY, paint);
+                canvas.drawText(getDayString(day), startX, dateY, paint);
 
                 paint.setTextSize(theme.sizeDesc());
-                int priceX = (int) (columnSize * column + (columnSize - paint.measureText(des))/2);
+                int priceX = (int) (columnSize * column + (columnSize - measureDes(year,month,day))/2);
                 int priceY = (int) (startY + 15);
                 canvas.drawText(des, priceX, priceY, paint);
             }else{//des为空的时候
                 paint.setColor(theme.colorSelectDay());
-                canvas.drawText(day+"", startX, startY, paint);
+                canvas.drawText(getDayString(day), startX, startY, paint);
             }
         }else if(day== currDay && currDay != selDay && currMonth == selMonth){//今日的颜色，不是选中的时候
             //正常月，选中其他日期，则今日为红色
             paint.setColor(theme.colorToday());
-            canvas.drawText(day+"", startX, startY, paint);
+            canvas.drawText(getDayString(day), startX, startY, paint);
         }else{
             if(!TextUtils.isEmpty(des)){//没选中，但是desc不为空
                 int dateY = (int) (startY - 10);
                 paint.setColor(theme.colorWeekday());
-                canvas.drawText(day + "", startX, dateY, paint);
+                canvas.drawText(getDayString(day), startX, dateY, paint);
 
                 paint.setTextSize(theme.sizeDesc());
                 paint.setColor(theme.colorDesc());
-                int priceX = (int) (columnSize * column + Math.abs((columnSize - paint.measureText(des))/2));
+                int priceX = (int) (columnSize * column + Math.abs((columnSize - measureDes(year,month,day))/2));
                 int priceY = (int) (startY + 15);
                 canvas.drawText(des, priceX, priceY, paint);
             }else{//des为空
                 paint.setColor(theme.colorWeekday());
-                canvas.drawText(day+"", startX, startY, paint);
+                canvas.drawText(getDayString(day), startX, startY, paint);
             }
         }
     }
 
+    /**
+     * 绘制跨天事务: 圆形日期下方的细横条
+     */
+    @Override
+    protected void drawSpan(Canvas canvas, SpanEvent span, int row, int startColumn, int endColumn,
+                            int lane, boolean isStart, boolean isEnd) {
+        float barHeight = rowSize / 20;
+        float left = columnSize * startColumn + (isStart ? columnSize / 4 : 0);
+        float right = columnSize * (endColumn + 1) - (isEnd ? columnSize / 4 : 0);
+        float bottom = rowSize * (row + 1) - lane * barHeight * 2;
+        spanRect.set(left, bottom - barHeight, right, bottom);
+        paint.setStyle(Paint.Style.FILL);
+        paint.setColor(theme.colorDecor());
+        canvas.drawRoundRect(spanRect, barHeight / 2, barHeight / 2, paint);
+    }
+
     @Override
     protected void createTheme() {
         theme = new DefaultDayTheme();
@@ -0,0 +1,54 @@
+package com.dsw.calendar.component;
+
+import android.graphics.Paint;
+
+import java.util.Arrays;
+
+/**
+ * 日期号1~31的字符串, 以及按字体大小缓存的绘制宽度
+ *
+ * 字符串为进程内共用的常量, 绘制时不再拼接day + "";
+ * 宽度缓存属于单个控件, 只在UI线程中读写, 字体大小不变时每个日期号只测量一次。
+ */
+final class DayNumbers {
+    private static final String[] STRINGS = new String[32];
+
+    static {
+        for (int day = 1; day < STRINGS.length; day++) {
+            STRINGS[day] = String.valueOf(day).intern();
+        }
+    }
+
+    private final float[] widths = new float[32];
+    /**
+     * 各日期号宽度对应的字体大小, 还未测量时为-1
+     */
+    private final float[] measuredSizes = new float[32];
+
+    DayNumbers() {
+        Arrays.fill(measuredSizes, -1);
+    }
+
+    /**
+     * @param day 日期号, 1~31
+     * @return 日期号字符串, 同一个日期号总是返回同一个实例
+     */
+    static String get(int day) {
+        return STRINGS[day];
+    }
+
+    /**
+     * 获取日期号在当前字体大小下的绘制宽度, 字体大小不变时直接返回缓存值
+     * @param paint 已设置好字体大小的画笔
+     * @param day   日期号, 1~31
+     * @return 宽度
+     */
+    float measure(Paint paint, int day) {
+        float textSize = paint.getTextSize();
+        if (textSize != measuredSizes[day]) {
+            widths[day] = paint.measureText(STRINGS[day]);
+            measuredSizes[day] = textSize;
+        }
+        return widths[day];
+    }
+}
@@ -4,10 +4,11 @@ import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Path;
+import android.graphics.RectF;
 import android.text.TextUtils;
 import android.util.AttributeSet;
 
-import com.dsw.calendar.entity.CalendarInfo;
+import com.dsw.calendar.entity.SpanEvent;
 import com.dsw.calendar.theme.DefaultDayTheme;
 
 /**
@@ -18,8 +19,20 @@ import com.dsw.calendar.theme.DefaultDayTheme;
  * drawDecor(Canvas canvas,int column,int row,int day);绘制事务标识符号
  * drawRest(Canvas canvas,int column,int row,int day);绘制‘班’、‘休’
  * drawText(Canvas canvas,int column,int row,int day);绘制日期
+ * drawSpan(...);绘制跨天事务
  */
 public class GridMonthView extends MonthView {
+    /** 绘制跨天事务时复用的矩形 */
+    private final RectF spanRect = new RectF();
+    /** 格网线, 行数或控件大小变化时才重新生成 */
+    private final Path gridPath = new Path();
+    private int gridRows = -1;
+    private float gridWidth, gridHeight;
+    /** 绘制‘班’、‘休’三角形时复用的路径 */
+    private final Path restPath = new Path();
+    /** ‘班’、‘休’的绘制宽度及其对应的字体大小, 字体大小不变时不再测量 */
+    private float restTextSize = -1;
+    private float workTextWidth, restTextWidth;
 
     public GridMonthView(Context context, AttributeSet attrs) {
         super(context, attrs);
@@ -36,35 +49,31 @@ public class GridMonthView extends MonthView {
         /** 1. 获取长宽(坐标) */
         int rightX = getWidth();
         int BottomY = getHeight();
-        int rowCount = rowsCount;
-        int columnCount = 7;
 
-        /** 2. 初始化画笔 */
-        Path path;
-        float startX = 0;
-        float endX = rightX;
-        paint.setStyle(Paint.Style.STROKE);
-        paint.setColor(theme.colorLine());
-
-        /** 3. 一行行绘制 */
-        for (int row = 1; row <= rowCount; row++) {
-            float startY = row * rowSize;
-            path = new Path();
-            path.moveTo(startX, startY);
-            path.lineTo(endX, startY);
-            canvas.drawPath(path, paint);
+        /** 2. 行数、长宽不变时直接复用上次生成的格网线 */
+        if (rowsCount != gridRows || rightX != gridWidth || BottomY != gridHeight) {
+            gridRows = rowsCount;
+            gridWidth = rightX;
+            gridHeight = BottomY;
+            gridPath.reset();
+            /** 3. 一行行生成 */
+            for (int row = 1; row <= rowsCount; row++) {
+                float startY = row * rowSize;
+                gridPath.moveTo(0, startY);
+                gridPath.lineTo(rightX, startY);
+            }
+            /** 4. 一列列生成 */
+            for (int column = 1; column < NUM_COLUMNS; column++) {
+                float startX = column * columnSize;
+                gridPath.moveTo(startX, 0);
+                gridPath.lineTo(startX, BottomY);
+            }
         }
 
-        /** 4. 一列列绘制 */
-        float startY = 0;
-        float endY = BottomY;
-        for (int column = 1; column < columnCount; column++) {
-            startX = column * columnSize;
-            path = new Path();
-            path.moveTo(startX, startY);
-            path.lineTo(startX, endY);
-            canvas.drawPath(path, paint);
-        }
+        /** 5. 初始化画笔并绘制 */
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setColor(theme.colorLine());
+        canvas.drawPath(gridPath, paint);
     }
 
     /**
@@ -101,7 +110,7 @@ public class GridMonthView extends MonthView {
      */
     @Override
     protected void drawDecor(Canvas canvas, int column, int row, int year, int month, int day) {
-        if (calendarInfos != null && calendarInfos.size() > 0) {
+        if (hasCalendarInfos()) {
             if (TextUtils.isEmpty(iscalendarInfo(year, month, day))) {
                 // 没有事务, 不绘制
                 return;
@@ -126,48 +135,59 @@ public class GridMonthView extends MonthView {
      */
     @Override
     protected void drawRest(Canvas canvas, int column, int row, int year, int month, int day) {
-        if (calendarInfos != null && calendarInfos.size() > 0) {
-            for (CalendarInfo calendarInfo : calendarInfos) {
-                /** 判断是否设置了事务数据 */
-                if (calendarInfo.day == day && calendarInfo.year == year && calendarInfo.month == month + 1) {
-                    // 1. 左上角 X坐标, Y坐标 (绘制在框内, 所以X+1, Y+1)
-                    float pointX0 = columnSize * column + 1;
-                    float pointY0 = rowSize * row + 1;
-                    // 2. 三角形右边坐标 (X轴向右移动高度的一半)
-                    float pointX1 = (float) (columnSize * column + rowSize * 0.5);
-                    float pointY1 = rowSize * row + 1;
-                    // 3. 三角形下面坐标 (Y轴向下移动高度一半)
-                    float pointX2 = columnSize * column + 1;
-                    float pointY2 = (float) (rowSize * row + rowSize * 0.5);
-
-                    // 4. 画两边
-                    Path path = new Path();
-                    path.moveTo(pointX0, pointY0);
-                    path.lineTo(pointX1, pointY1);
-                    path.lineTo(pointX2, pointY2);
-                    path.close();
-
-                    paint.setStyle(Paint.Style.FILL);
-                    if (calendarInfo.rest == 2) {//班
-                        paint.setColor(theme.colorWork());
-                        canvas.drawPath(path, paint);
-
-                        paint.setTextSize(theme.sizeDesc());
-                        paint.setColor(theme.colorSelectDay());
-                        paint.measureText("班");
-                        canvas.drawText("班", pointX0 + 5, pointY0 + paint.measureText("班"), paint);
-                    } else if (calendarInfo.rest == 1) {//休息
-                        paint.setColor(theme.colorRest());
-                        canvas.drawPath(path, paint);
-                        paint.setTextSize(theme.sizeDesc());
-                        paint.setColor(theme.colorSelectDay());
-                        canvas.drawText("休", pointX0 + 5, pointY0 + paint.measureText("休"), paint);
-                    }
-                }
+        /** 从月份快照中读取休、班标志 */
+        int rest = getRest(year, month, day);
+        if (rest != 0) {
+            // 1. 左上角 X坐标, Y坐标 (绘制在框内, 所以X+1, Y+1)
+            float pointX0 = columnSize * column + 1;
+            float pointY0 = rowSize * row + 1;
+            // 2. 三角形右边坐标 (X轴向右移动高度的一半)
+            float pointX1 = (float) (columnSize * column + rowSize * 0.5);
+            float pointY1 = rowSize * row + 1;
+            // 3. 三角形下面坐标 (Y轴向下移动高度一半)
+            float pointX2 = columnSize * column + 1;
+            float pointY2 = (float) (rowSize * row + rowSize * 0.5);
+
+            // 4. 画两边
+            Path path = restPath;
+            path.reset();
+            path.moveTo(pointX0, pointY0);
+            path.lineTo(pointX1, pointY1);
+            path.lineTo(pointX2, pointY2);
+            path.close();
+
+            paint.setStyle(Paint.Style.FILL);
+            if (rest == 2) {//班
+                paint.setColor(theme.colorWork());
+                canvas.drawPath(path, paint);
+
+                paint.setTextSize(theme.sizeDesc());
+                paint.setColor(theme.colorSelectDay());
+                measureRestText();
+                canvas.drawText("班", pointX0 + 5, pointY0 + workTextWidth, paint);
+            } else if (rest == 1) {//休息
+                paint.setColor(theme.colorRest());
+                canvas.drawPath(path, paint);
+                paint.setTextSize(theme.sizeDesc());
+                paint.setColor(theme.colorSelectDay());
+                measureRestText();
+                canvas.drawText("休", pointX0 + 5, pointY0 + restTextWidth, paint);
             }
         }
     }
 
+    /**
+     * 按画笔当前的字体大小测量‘班’、‘休’的宽度, 字体大小不变时直接使用上次的结果
+     */
+    private void measureRestText() {
+        float textSize = paint.getTextSize();
+        if (textSize != restTextSize) {
+            workTextWidth = paint.measureText("班");
+            restTextWidth = paint.measureText("休");
+            restTextSize = textSize;
+        }
+    }
+
     /**
      * 绘制日期
      * @param canvas 画布
@@ -182,7 +202,7 @@ public class GridMonthView extends MonthView {
         // 1. 字体大小
         paint.setTextSize(theme.sizeDay());
         // 2. 计算字体绘制开始坐标(中间)
-        float startX = columnSize * column + (columnSize - paint.measureText(day + "")) / 2;
+        float startX = columnSize * column + (columnSize - measureDay(day)) / 2;
         float startY = rowSize * row + rowSize / 2 - (paint.ascent() + paint.descent()) / 2;
         paint.setStyle(Paint.Style.STROKE);
         // 3. 判断是否是事务数据
@@ -192,39 +212,76 @@ public class GridMonthView extends MonthView {
                 /** 如果有事务, 字体向上移10dp */
                 int dateY = (int) (startY - 10);
                 paint.setColor(theme.colorSelectDay());
-                canvas.drawText(day + "", startX, dateY, paint);
+                canvas.drawText(getDayString(day), startX, dateY, paint);
 
                 /** 绘制事务 */
                 paint.setTextSize(theme.sizeDesc());
-                int priceX = (int) (columnSize * column + (columnSize - paint.measureText(des)) / 2);
+                int priceX = (int) (columnSize * column + (columnSize - measureDes(year, month, day)) / 2);
                 int priceY = (int) (startY + 15);
                 canvas.drawText(des, priceX, priceY, paint);
             } else {//des为空的时候
                 paint.setColor(theme.colorSelectDay());
-                canvas.drawText(day + "", startX, startY, paint);
+                canvas.drawText(getDayString(day), startX, startY, paint);
             }
         } else if (day == currDay && currDay != selDay && currMonth == selMonth) {//今日的颜色，不是选中的时候
             //正常月，选中其他日期，则今日为红色
             paint.setColor(theme.colorToday());
-            canvas.drawText(day + "", startX, startY, paint);
+            canvas.drawText(getDayString(day), startX, startY, paint);
         } else {
             if (!TextUtils.isEmpty(des)) {//没选中，但是desc不为空
                 int dateY = (int) (startY - 10);
                 paint.setColor(theme.colorWeekday());
-                canvas.drawText(day + "", startX, dateY, paint);
+                canvas.drawText(getDayString(day), startX, dateY, paint);
 
                 paint.setTextSize(theme.sizeDesc());
                 paint.setColor(theme.colorDesc());
-                int priceX = (int) (columnSize * column + Math.abs((columnSize - paint.measureText(des)) / 2));
+                int priceX = (int) (columnSize * column + Math.abs((columnSize - measureDes(year, month, day)) / 2));
                 int priceY = (int) (startY + 15);
                 canvas.drawText(des, priceX, priceY, paint);
             } else {//des为空
                 paint.setColor(theme.colorWeekday());
-                canvas.drawText(day + "", startX, startY, paint);
+                canvas.drawText(getDayString(day), startX, startY, paint);
             }
         }
     }
 
+    /**
+     * 绘制跨天事务: 格子底部的横条, 事务开始的一段(或每周的第一段)在横条内显示描述
+     *
+     * @param canvas      画布
+     * @param span        跨天事务
+     * @param row         行
+     * @param startColumn 开始列
+     * @param endColumn   结束列
+     * @param lane        第几条
+     * @param isStart     是否包含开始日期
+     * @param isEnd       是否包含结束日期
+     */
+    @Override
+    protected void drawSpan(Canvas canvas, SpanEvent span, int row, int startColumn, int endColumn,
+                            int lane, boolean isStart, boolean isEnd) {
+        float barHeight = rowSize / 10;
+        float padding = columnSize / 10;
+        float left = columnSize * startColumn + (isStart ? padding : 0);
+        float right = columnSize * (endColumn + 1) - (isEnd ? padding : 0);
+        float bottom = rowSize * (row + 1) - 2 - lane * (barHeight + 2);
+        spanRect.set(left, bottom - barHeight, right, bottom);
+        paint.setStyle(Paint.Style.FILL);
+        paint.setColor(theme.colorDecor());
+        canvas.drawRoundRect(spanRect, barHeight / 2, barHeight / 2, paint);
+        String des = span.getDes();
+        if (TextUtils.isEmpty(des) || (!isStart && startColumn != 0)) {
+            return;
+        }
+        /** 描述超出横条时截断 */
+        paint.setTextSize(barHeight * 0.8f);
+        paint.setColor(theme.colorMonthView());
+        canvas.save();
+        canvas.clipRect(left, bottom - barHeight, right, bottom);
+        canvas.drawText(des, left + barHeight / 2, bottom - barHeight / 2 - (paint.ascent() + paint.descent()) / 2, paint);
+        canvas.restore();
+    }
+
     @Override
     protected void createTheme() {
         theme = new DefaultDayTheme();
@@ -0,0 +1,122 @@
+package com.dsw.calendar.component;
+
+import com.dsw.calendar.utils.DateUtils;
+
+/**
+ * 月份的格子布局, 不可变
+ *
+ * 1号位于周几、天数、行数以及每个格子对应的日期号, 每个(年, 月)只计算一次。
+ * 缓存为按月份序号直接映射的小数组, 相邻的几个月不会互相覆盖;
+ * 查询不创建任何对象(包括Integer键), 滑动时可以每帧调用。
+ * 对象不可变且字段都是final, 多线程读取缓存不需要加锁, 最坏情况只是重复计算。
+ */
+public final class MonthLayout {
+    public static final int NUM_COLUMNS = 7;
+    public static final int MAX_ROWS = 6;
+
+    /**
+     * 缓存槽位数, 2的幂
+     */
+    private static final int CACHE_SIZE = 32;
+    private static final MonthLayout[] CACHE = new MonthLayout[CACHE_SIZE];
+
+    private final int year;
+    private final int month;
+    private final int firstWeek;
+    private final int monthDays;
+    private final int rows;
+    /**
+     * 格子对应的日期号, 下标为 行 * 7 + 列, 不属于该月的格子为0
+     */
+    private final int[] cells = new int[NUM_COLUMNS * MAX_ROWS];
+
+    private MonthLayout(int year, int month) {
+        this.year = year;
+        this.month = month;
+        monthDays = DateUtils.getMonthDays(year, month);
+        /** 1970年1月1日为周四 */
+        int epochDay = DateUtils.toEpochDay(year, month + 1, 1);
+        firstWeek = ((epochDay + 4) % 7 + 7) % 7 + 1;
+        rows = (monthDays + firstWeek - 2) / NUM_COLUMNS + 1;
+        for (int day = 1; day <= monthDays; day++) {
+            cells[day + firstWeek - 2] = day;
+        }
+    }
+
+    /**
+     * 获取指定月份的布局
+     *
+     * @param year
+     * @param month 月, 0~11
+     * @return
+     */
+    public static MonthLayout of(int year, int month) {
+        int slot = (year * 12 + month) & (CACHE_SIZE - 1);
+        MonthLayout layout = CACHE[slot];
+        if (layout == null || layout.year != year || layout.month != month) {
+            layout = new MonthLayout(year, month);
+            CACHE[slot] = layout;
+        }
+        return layout;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * @return 月, 0~11
+     */
+    public int getMonth() {
+        return month;
+    }
+
+    /**
+     * 1号位于周几, 与DateUtils.getFirstDayWeek一致
+     * @return 日：1 一：2 …… 六：7
+     */
+    public int getFirstWeek() {
+        return firstWeek;
+    }
+
+    public int getMonthDays() {
+        return monthDays;
+    }
+
+    /**
+     * @return 显示该月需要的行数, 4~6
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * 格子对应的日期号
+     *
+     * @param row    行, 从0开始
+     * @param column 列, 从0开始
+     * @return 不属于该月或超出格子范围时返回0
+     */
+    public int getDay(int row, int column) {
+        if (row < 0 || row >= MAX_ROWS || column < 0 || column >= NUM_COLUMNS) {
+            return 0;
+        }
+        return cells[row * NUM_COLUMNS + column];
+    }
+
+    /**
+     * @param day 日期号, 1~该月天数
+     * @return 所在行, 从0开始
+     */
+    public int getRow(int day) {
+        return (day + firstWeek - 2) / NUM_COLUMNS;
+    }
+
+    /**
+     * @param day 日期号, 1~该月天数
+     * @return 所在列, 从0开始
+     */
+    public int getColumn(int day) {
+        return (day + firstWeek - 2) % NUM_COLUMNS;
+    }
+}
@@ -0,0 +1,151 @@
+package com.dsw.calendar.component;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Picture;
+
+/**
+ * 月份贴图缓存, 滑动动画时每个月份只逐格绘制一次, 之后每帧直接绘制缓存的结果
+ *
+ * 两种贴图: 与控件同样大小的Bitmap, 或者录制的绘制指令Picture。
+ * Picture只保存绘制指令, 占用内存远小于整屏的Bitmap, 回放时仍需要光栅化, 适合内存紧张的设备。
+ * 贴图的键为(年, 月, 绘制版本), 版本由MonthView在选中日期、主题、事务数据等变化时递增;
+ * 控件大小变化时贴图同样失效。缓存为按最近使用排列的小数组, 未命中时复用最久未使用的贴图的Bitmap或Picture,
+ * 大小不变时不再创建新的Bitmap。只在UI线程中使用。
+ */
+final class MonthTileCache {
+    /**
+     * 把一个月份绘制到贴图上, 坐标原点为贴图左上角
+     */
+    interface Renderer {
+        void render(Canvas canvas, int year, int month);
+    }
+
+    private static final class Tile {
+        Bitmap bitmap;
+        Canvas canvas;
+        Picture picture;
+        int width, height;
+        int year, month, version;
+    }
+
+    /**
+     * 贴图, 下标0为最近使用
+     */
+    private final Tile[] tiles;
+    /**
+     * 是否录制为Picture, 否则绘制到Bitmap
+     */
+    private final boolean usePicture;
+
+    /**
+     * @param size       缓存的月份数, 至少为滑动时同时绘制的3个月
+     * @param usePicture 是否录制为Picture
+     */
+    MonthTileCache(int size, boolean usePicture) {
+        tiles = new Tile[size];
+        this.usePicture = usePicture;
+    }
+
+    /**
+     * 是否录制为Picture
+     * @return
+     */
+    boolean usesPicture() {
+        return usePicture;
+    }
+
+    /**
+     * 在startX处绘制月份的贴图, 贴图没有或已失效时先重新绘制贴图
+     *
+     * @param canvas   目标画布
+     * @param year
+     * @param month    月, 0~11
+     * @param startX   贴图左边在画布中的位置
+     * @param version  绘制版本, 与贴图绘制时的版本不同则重新绘制
+     * @param width    贴图宽度
+     * @param height   贴图高度
+     * @param renderer 绘制月份
+     */
+    void draw(Canvas canvas, int year, int month, int startX, int version, int width, int height,
+              Renderer renderer) {
+        Tile tile = obtain(year, month, version);
+        if (tile.width != width || tile.height != height) {
+            tile.width = width;
+            tile.height = height;
+            tile.version = version - 1;
+        }
+        if (usePicture) {
+            if (tile.picture == null) {
+                tile.picture = new Picture();
+            }
+            if (tile.version != version) {
+                renderer.render(tile.picture.beginRecording(width, height), year, month);
+                tile.picture.endRecording();
+                tile.version = version;
+            }
+            canvas.save();
+            canvas.translate(startX, 0);
+            canvas.drawPicture(tile.picture);
+            canvas.restore();
+        } else {
+            if (tile.bitmap == null || tile.bitmap.getWidth() != width || tile.bitmap.getHeight() != height) {
+                if (tile.bitmap != null) {
+                    tile.bitmap.recycle();
+                }
+                tile.bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+                tile.canvas = new Canvas(tile.bitmap);
+            }
+            if (tile.version != version) {
+                /** 复用的Bitmap留有上次绘制的内容, 先清空, 否则主题背景半透明时旧内容会透出来 */
+                tile.bitmap.eraseColor(Color.TRANSPARENT);
+                renderer.render(tile.canvas, year, month);
+                tile.version = version;
+            }
+            canvas.drawBitmap(tile.bitmap, startX, 0, null);
+        }
+    }
+
+    /**
+     * 查找月份的贴图并移到最前面, 未命中时复用最久未使用的一项
+     */
+    private Tile obtain(int year, int month, int version) {
+        int index = 0;
+        Tile tile = null;
+        while (index < tiles.length && tiles[index] != null) {
+            Tile candidate = tiles[index];
+            if (candidate.year == year && candidate.month == month) {
+                tile = candidate;
+                break;
+            }
+            index++;
+        }
+        if (tile == null) {
+            index = Math.min(index, tiles.length - 1);
+            tile = tiles[index];
+            if (tile == null) {
+                tile = new Tile();
+            }
+            tile.year = year;
+            tile.month = month;
+            /** 保证重新绘制 */
+            tile.version = version - 1;
+        }
+        System.arraycopy(tiles, 0, tiles, 1, index);
+        tiles[0] = tile;
+        return tile;
+    }
+
+    /**
+     * 释放全部贴图
+     */
+    void clear() {
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] != null && tiles[i].bitmap != null) {
+                tiles[i].bitmap.recycle();
+            }
+            tiles[i] = null;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.dsw.calendar.component;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Paint;
+import android.os.Build;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
@@ -10,10 +11,24 @@ import android.view.ViewConfiguration;
 import android.widget.Scroller;
 
 import com.dsw.calendar.entity.CalendarInfo;
+import com.dsw.calendar.entity.CalendarInfoIndex;
+import com.dsw.calendar.entity.CalendarSnapshot;
+import com.dsw.calendar.entity.CalendarStore;
+import com.dsw.calendar.entity.DesLabel;
+import com.dsw.calendar.entity.MonthDataSource;
+import com.dsw.calendar.entity.MonthEvents;
+import com.dsw.calendar.entity.RecurrenceRule;
+import com.dsw.calendar.entity.RecurrenceSet;
+import com.dsw.calendar.entity.SpanEvent;
+import com.dsw.calendar.entity.SpanIndex;
 import com.dsw.calendar.theme.IDayTheme;
+import com.dsw.calendar.utils.CalendarUtil;
 import com.dsw.calendar.utils.DateUtils;
+import com.dsw.calendar.utils.DayLabelCache;
+import com.dsw.calendar.utils.WorkdayCalendar;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.List;
 
@@ -27,6 +42,7 @@ import java.util.List;
  * drawDecor(Canvas canvas,int column,int row,int day);绘制事务标识符号
  * drawRest(Canvas canvas,int column,int row,int day);绘制‘班’、‘休’
  * drawText(Canvas canvas,int column,int row,int day);绘制日期
+ * drawSpan(Canvas canvas,SpanEvent span,int row,int startColumn,int endColumn,int lane,boolean isStart,boolean isEnd);绘制跨天事务的一段, 可选, 默认不绘制
  */
 public abstract class MonthView extends View {
     protected int NUM_COLUMNS = 7;
@@ -39,13 +55,72 @@ public abstract class MonthView extends View {
     protected int selYear, selMonth, selDay;
     private int leftYear, leftMonth, leftDay;
     private int rightYear, rightMonth, rightDay;
-    protected int[][] daysString;
     protected float columnSize, rowSize, baseRowSize;
+    /**
+     * 最近一次setCalendarInfos传入的列表, 仅为兼容旧的子类保留
+     * 增量修改(add/update/removeCalendarInfo)及按月数据源的事务不会反映在这里,
+     * 请改用iscalendarInfo、getRest、getCalendarCount等按日期查询的方法
+     */
+    @Deprecated
+    protected List<CalendarInfo> calendarInfos = new ArrayList<CalendarInfo>();
+    /**
+     * 最近一次绘制的月份中每个格子的日期号, 不属于该月的格子为0, 仅为兼容旧的子类保留
+     * 数组只分配一次, 每绘制一个月份覆盖一次; 绘制三个月时, 绘制期间对应正在绘制的月份,
+     * 绘制结束后为最后绘制的月份, 不一定是选中的月份。请改用MonthLayout.of(year, month).getDay(row, column)
+     */
+    @Deprecated
+    protected int[][] daysString = new int[6][7];
     private int mTouchSlop;
     protected float density;
     private int indexMonth;
     private int width;
-    protected List<CalendarInfo> calendarInfos = new ArrayList<CalendarInfo>();
+    /** 事务数据仓库, 在后台线程构建快照 */
+    private final CalendarStore calendarStore = new CalendarStore();
+    /** 重复事务规则, 绘制时按月展开 */
+    private final RecurrenceSet recurrenceSet = new RecurrenceSet();
+    /** 法定节假日、调休上班日, 事务中没有休、班标志时使用 */
+    private WorkdayCalendar workdayCalendar = WorkdayCalendar.getDefault();
+    /** 本帧绘制使用的快照, 保证一帧内三个月份的数据一致 */
+    private CalendarSnapshot frameSnapshot = CalendarSnapshot.EMPTY;
+    /** 正在绘制的月份及其事务 */
+    private int drawingYear, drawingMonth;
+    private MonthEvents drawingEvents = MonthEvents.EMPTY;
+    /** 本帧使用的跨天事务索引 */
+    private SpanIndex frameSpans = SpanIndex.EMPTY;
+    /** 最多绘制的跨天事务行数, 更多的重叠事务不再绘制 */
+    protected static final int MAX_SPAN_LANES = 3;
+    /** 绘制时复用的查询结果及每一行已占用到的日期 */
+    private final List<SpanEvent> monthSpans = new ArrayList<SpanEvent>();
+    private final int[] laneEnds = new int[MAX_SPAN_LANES];
+    /** 日期号字符串的宽度缓存 */
+    private final DayNumbers dayNumbers = new DayNumbers();
+    /**
+     * 月份贴图缓存的月份数: 滑动时绘制的3个月
+     * 翻页结束时选中日期改变, 绘制版本递增, 全部贴图失效, 多缓存的月份不会再命中
+     */
+    private static final int TILE_CACHE_SIZE = 3;
+    /** 滑动动画时使用的月份贴图, 为null时逐格绘制 */
+    private MonthTileCache tileCache;
+    private boolean tileCacheEnabled = true;
+    /** 贴图录制为Picture, 否则绘制到Bitmap */
+    private boolean tileCacheUsePicture;
+    /** 贴图的绘制版本, 影响绘制结果的数据变化时递增 */
+    private int renderVersion;
+    /** 上次检查时的快照, 快照替换后贴图失效 */
+    private CalendarSnapshot tileSnapshot;
+    private SpanIndex tileSpans;
+    private final MonthTileCache.Renderer tileRenderer = new MonthTileCache.Renderer() {
+        @Override
+        public void render(Canvas canvas, int year, int month) {
+            canvas.drawColor(theme.colorMonthView());
+            drawDate(canvas, year, month, 0, 0);
+        }
+    };
+    /** 最近一次换算的整月农历, 格子顺序见CalendarUtil.toLunarMonth */
+    private final int[] lunarGrid = new int[42];
+    private int lunarGridYear = -1, lunarGridMonth, lunarGridOffset;
+    /** 最近一次翻页的方向, 1为向后, -1为向前, 用于预取数据源的月份 */
+    private int pageDirection;
     private int downX = 0, downY = 0;
     private Scroller mScroller;
     private int smoothMode;
@@ -81,6 +156,40 @@ public abstract class MonthView extends View {
         baseRowSize = rowSize = theme == null ? 70 : theme.dateHeight();
         /** 滑动模式  0是渐变滑动方式，1是没有滑动方式 */
         smoothMode = theme == null ? 0 : theme.smoothMode();
+        /** 默认使用Bitmap贴图 */
+        updateTileCache();
+
+        /** 事务数据在后台线程更新完成后, 切回UI线程重绘 */
+        calendarStore.setOnStoreChangeListener(new CalendarStore.OnStoreChangeListener() {
+            @Override
+            public void onSnapshotReplaced() {
+                postInvalidate();
+            }
+
+            @Override
+            public void onMonthLoaded(final int year, final int month) {
+                post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (isMonthDrawn(year, month - 1)) {
+                            invalidate();
+                        }
+                    }
+                });
+            }
+
+            @Override
+            public void onDaysChanged(final int[] dates) {
+                post(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int date : dates) {
+                            invalidateDay(date / 10000, date / 100 % 100 - 1, date % 100);
+                        }
+                    }
+                });
+            }
+        });
     }
 
     /**
@@ -112,12 +221,28 @@ public abstract class MonthView extends View {
     protected void onDraw(Canvas canvas) {
         /** 主题颜色 */
         canvas.drawColor(theme.colorMonthView());
+        /** 本帧只读取一次已发布的快照 */
+        frameSnapshot = calendarStore.getSnapshot();
+        frameSpans = calendarStore.getSpans();
+        if (frameSnapshot != tileSnapshot || frameSpans != tileSpans) {
+            tileSnapshot = frameSnapshot;
+            tileSpans = frameSpans;
+            renderVersion++;
+        }
 
         /** 没有滑动模式 */
         if (smoothMode == 1) {
             drawDate(canvas, selYear, selMonth, indexMonth * width, 0);
             return;
         }
+        /** 滑动动画中每帧只绘制三张贴图 */
+        if (tileCache != null && !mScroller.isFinished() && getWidth() > 0 && getHeight() > 0
+                && (!tileCache.usesPicture() || canDrawPicture(canvas))) {
+            drawTile(canvas, leftYear, leftMonth, (indexMonth - 1) * width);
+            drawTile(canvas, rightYear, rightMonth, (indexMonth + 1) * width);
+            drawTile(canvas, selYear, selMonth, indexMonth * width);
+            return;
+        }
         //绘制上一月份
         drawDate(canvas, leftYear, leftMonth, (indexMonth - 1) * width, 0);
         //绘制下一月份
@@ -126,6 +251,76 @@ public abstract class MonthView extends View {
         drawDate(canvas, selYear, selMonth, indexMonth * width, 0);
     }
 
+    /**
+     * 绘制月份的贴图, 贴图没有或已失效时先逐格绘制到贴图上
+     * @param canvas
+     * @param year
+     * @param month
+     * @param startX
+     */
+    private void drawTile(Canvas canvas, int year, int month, int startX) {
+        tileCache.draw(canvas, year, month, startX, renderVersion, getWidth(), getHeight(), tileRenderer);
+    }
+
+    /**
+     * 硬件加速的画布在Android 6.0(API 23)以前不支持drawPicture, 这时逐格绘制
+     * @param canvas
+     * @return
+     */
+    private static boolean canDrawPicture(Canvas canvas) {
+        return !canvas.isHardwareAccelerated() || Build.VERSION.SDK_INT >= 23;
+    }
+
+    /**
+     * 滑动动画时是否使用月份贴图, 默认使用, 贴图种类见setTileCacheUsePicture
+     * 最多缓存TILE_CACHE_SIZE个月份; 关闭时释放全部贴图
+     *
+     * @param enabled
+     */
+    public void setTileCacheEnabled(boolean enabled) {
+        tileCacheEnabled = enabled;
+        updateTileCache();
+    }
+
+    /**
+     * 月份贴图是否录制为绘制指令(Picture), 默认为false, 即绘制到与控件同样大小的Bitmap
+     * Picture占用内存远小于整屏的Bitmap, 回放时仍需要光栅化, 适合内存紧张的设备
+     *
+     * @param usePicture
+     */
+    public void setTileCacheUsePicture(boolean usePicture) {
+        tileCacheUsePicture = usePicture;
+        updateTileCache();
+    }
+
+    /**
+     * 按是否启用及贴图种类重新创建贴图缓存, 种类不变时保留已有贴图
+     */
+    private void updateTileCache() {
+        if (tileCache != null && (!tileCacheEnabled || tileCache.usesPicture() != tileCacheUsePicture)) {
+            tileCache.clear();
+            tileCache = null;
+        }
+        if (tileCacheEnabled && tileCache == null) {
+            tileCache = new MonthTileCache(TILE_CACHE_SIZE, tileCacheUsePicture);
+        }
+    }
+
+    /**
+     * 使月份贴图失效, 子类修改了影响绘制结果的状态后调用
+     */
+    protected void invalidateTiles() {
+        renderVersion++;
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (tileCache != null) {
+            tileCache.clear();
+        }
+    }
+
     /**
      * 绘制日期
      * @param canvas
@@ -139,39 +334,85 @@ public abstract class MonthView extends View {
         canvas.save();
         /** 2. 平移画布, 默认X = 0, Y = 0 */
         canvas.translate(startX, startY);
-        /** 3. 日历有多少行(%7) */
-        NUM_ROWS = getMonthRowNumber(year, month);
+        /** 3. 该月的布局(1号周几、天数、行数), 每个月份只计算一次 */
+        MonthLayout layout = MonthLayout.of(year, month);
+        NUM_ROWS = layout.getRows();
         /** 4. 计算每列宽度 /7 */
         columnSize = getWidth() * 1.0F / NUM_COLUMNS;
         /** 5. 计算每列高度 /6 */
         rowSize = getHeight() * 1.0F / NUM_ROWS;
-        /** 6.  */
-        daysString = new int[6][7];
-        /** 7. 获取指定月有多少天 */
-        int mMonthDays = DateUtils.getMonthDays(year, month);
-        /** 8. 获取指定月1号周几 */
-        int weekNumber = DateUtils.getFirstDayWeek(year, month);
+        int mMonthDays = layout.getMonthDays();
+        /** 获取该月的事务快照, 每个格子只需读取数组 */
+        drawingYear = year;
+        drawingMonth = month;
+        drawingEvents = recurrenceSet.apply(frameSnapshot.get(year, month + 1), year, month + 1);
         int column, row;
         /** 9. 画线(子类实现) */
         drawLines(canvas, NUM_ROWS);
-        /** 10.  */
-        for (int day = 0; day < mMonthDays; day++) {
-            /* 计算是第几列 */
-            column = (day + weekNumber - 1) % 7;
-            /* 计算是第几行 */
-            row = (day + weekNumber - 1) / 7;
-            /* 从一号开始, 保存到二维数组 */
-            daysString[row][column] = day + 1;
-
-            drawBG(canvas, column, row, daysString[row][column]);
-            drawDecor(canvas, column, row, year, month, daysString[row][column]);
-            drawRest(canvas, column, row, year, month, daysString[row][column]);
-            drawText(canvas, column, row, year, month, daysString[row][column]);
+        for (int[] days : daysString) {
+            Arrays.fill(days, 0);
         }
-        /** 11. 还原画布 */
+        /** 10. 从一号开始逐个格子绘制 */
+        for (int day = 1; day <= mMonthDays; day++) {
+            column = layout.getColumn(day);
+            row = layout.getRow(day);
+            daysString[row][column] = day;
+
+            drawBG(canvas, column, row, day);
+            drawDecor(canvas, column, row, year, month, day);
+            drawRest(canvas, column, row, year, month, day);
+            drawText(canvas, column, row, year, month, day);
+        }
+        /** 11. 绘制跨天事务 */
+        drawSpans(canvas, layout);
+        /** 12. 还原画布 */
         canvas.restore();
     }
 
+    /**
+     * 绘制与该月相交的跨天事务, 每个事务按周拆成若干段
+     * 按开始日期依次放入第一条空闲的行(lane), 同一行内的事务互不重叠
+     */
+    private void drawSpans(Canvas canvas, MonthLayout layout) {
+        if (frameSpans.isEmpty()) {
+            return;
+        }
+        int year = layout.getYear();
+        int month = layout.getMonth();
+        int monthDays = layout.getMonthDays();
+        int first = CalendarInfoIndex.packDate(year, month + 1, 1);
+        int last = CalendarInfoIndex.packDate(year, month + 1, monthDays);
+        monthSpans.clear();
+        frameSpans.query(first, last, monthSpans);
+        int lanes = 0;
+        for (int i = 0, count = monthSpans.size(); i < count; i++) {
+            SpanEvent span = monthSpans.get(i);
+            int startDay = span.getStart() < first ? 1 : span.getStart() % 100;
+            int endDay = span.getEnd() > last ? monthDays : span.getEnd() % 100;
+            int lane = 0;
+            while (lane < lanes && laneEnds[lane] >= startDay) {
+                lane++;
+            }
+            if (lane == MAX_SPAN_LANES) {
+                continue;
+            }
+            if (lane == lanes) {
+                lanes++;
+            }
+            laneEnds[lane] = endDay;
+            /** 按周拆段, 每段不跨行 */
+            for (int day = startDay; day <= endDay; ) {
+                int row = layout.getRow(day);
+                int column = layout.getColumn(day);
+                int segmentEnd = Math.min(endDay, day + 6 - column);
+                boolean isStart = day == startDay && span.getStart() >= first;
+                boolean isEnd = segmentEnd == endDay && span.getEnd() <= last;
+                drawSpan(canvas, span, row, column, column + segmentEnd - day, lane, isStart, isEnd);
+                day = segmentEnd + 1;
+            }
+        }
+    }
+
     /**
      * 回执格网线
      *
@@ -187,6 +428,23 @@ public abstract class MonthView extends View {
 
     protected abstract void drawText(Canvas canvas, int column, int row, int year, int month, int day);
 
+    /**
+     * 绘制跨天事务在一周内的一段
+     * 默认不绘制, 需要显示跨天事务的子类覆盖此方法; 不声明为抽象方法, 已有的子类不需要修改
+     *
+     * @param canvas
+     * @param span        跨天事务
+     * @param row         所在行
+     * @param startColumn 开始列
+     * @param endColumn   结束列, 包含在内
+     * @param lane        第几条, 从0开始, 小于MAX_SPAN_LANES
+     * @param isStart     该段是否包含事务的开始日期
+     * @param isEnd       该段是否包含事务的结束日期
+     */
+    protected void drawSpan(Canvas canvas, SpanEvent span, int row, int startColumn, int endColumn,
+                            int lane, boolean isStart, boolean isEnd) {
+    }
+
     /**
      * 实例化Theme
      */
@@ -295,6 +553,8 @@ public abstract class MonthView extends View {
         selYear = year;
         selMonth = month;
         selDay = day;
+        /** 各月份都按选中日期绘制背景, 贴图全部失效 */
+        renderVersion++;
     }
 
     /**
@@ -304,23 +564,193 @@ public abstract class MonthView extends View {
      * @return
      */
     protected int getMonthRowNumber(int year, int month) {
-        /** 通过年月, 计算当月有多少天 */
-        int monthDays = DateUtils.getMonthDays(year, month);
-        /** 通过年月, 计算当月第一天是星期几 */
-        int weekNumber = DateUtils.getFirstDayWeek(year, month);
-        /** 计算需要多少行来显示日期 */
-        return (monthDays + weekNumber - 1) % 7 == 0 ? (monthDays + weekNumber - 1) / 7 : (monthDays + weekNumber - 1) / 7 + 1;
+        return MonthLayout.of(year, month).getRows();
     }
 
     /**
      * 获取外界传进来的事务数据
+     * 在后台线程中构建各月份的快照, 完成后自动重绘; 绘制不再读取列表, 只为兼容保存在calendarInfos字段中
      * @param calendarInfos
      */
     public void setCalendarInfos(List<CalendarInfo> calendarInfos) {
         this.calendarInfos = calendarInfos;
+        calendarStore.setCalendarInfos(calendarInfos);
+    }
+
+    /**
+     * 新增一条事务, 追加到该日期已有的事务之后
+     * 只重绘该日期所在的格子, 且仅当该日期在当前绘制的三个月份之内
+     * add/update/remove系列方法在调用时复制事务, 返回后可以继续修改或复用传入的对象和列表
+     * @param calendarInfo
+     */
+    public void addCalendarInfo(CalendarInfo calendarInfo) {
+        calendarStore.addCalendarInfo(calendarInfo);
+    }
+
+    /**
+     * 批量新增事务
+     * @param calendarInfos
+     */
+    public void addCalendarInfos(List<CalendarInfo> calendarInfos) {
+        calendarStore.addCalendarInfos(calendarInfos);
+    }
+
+    /**
+     * 更新一条事务, 替换该日期原有的全部事务, 没有时新增
+     * @param calendarInfo
+     */
+    public void updateCalendarInfo(CalendarInfo calendarInfo) {
+        calendarStore.updateCalendarInfo(calendarInfo);
+    }
+
+    /**
+     * 批量更新事务, 列表中同一日期的事务一起替换该日期原有的全部事务
+     * @param calendarInfos
+     */
+    public void updateCalendarInfos(List<CalendarInfo> calendarInfos) {
+        calendarStore.updateCalendarInfos(calendarInfos);
+    }
+
+    /**
+     * 删除事务, 同一日期上描述相同的事务都会被删除; des为null时删除该日期的全部事务
+     * @param calendarInfo
+     */
+    public void removeCalendarInfo(CalendarInfo calendarInfo) {
+        calendarStore.removeCalendarInfo(calendarInfo);
+    }
+
+    /**
+     * 批量删除事务
+     * @param calendarInfos
+     */
+    public void removeCalendarInfos(List<CalendarInfo> calendarInfos) {
+        calendarStore.removeCalendarInfos(calendarInfos);
+    }
+
+    /**
+     * 设置按月拉取的数据源, 默认缓存12个月, 沿滑动方向预取2个月
+     * @param dataSource 数据源, 为null时取消
+     */
+    public void setMonthDataSource(MonthDataSource dataSource) {
+        setMonthDataSource(dataSource, 12, 2);
+    }
+
+    /**
+     * 设置按月拉取的数据源
+     * 切换月份时在后台线程拉取可见月份, 并预取滑动方向上的月份, 结果缓存在LRU中
+     *
+     * @param dataSource    数据源, 为null时取消
+     * @param cacheSize     最多缓存的月份数
+     * @param prefetchCount 沿滑动方向预取的月份数
+     */
+    public void setMonthDataSource(MonthDataSource dataSource, int cacheSize, int prefetchCount) {
+        calendarStore.setMonthDataSource(dataSource, cacheSize, prefetchCount);
+        calendarStore.loadMonths(selYear, selMonth + 1, 0);
+    }
+
+    /**
+     * 设置跨天事务, 替换原有的跨天事务
+     * 在后台线程中构建区间索引, 完成后自动重绘
+     * @param spanEvents 跨天事务列表, 为null时清空
+     */
+    public void setSpanEvents(List<SpanEvent> spanEvents) {
+        calendarStore.setSpanEvents(spanEvents);
+    }
+
+    /**
+     * 设置重复事务规则, 替换原有规则
+     * 规则不会展开成事务列表, 只在绘制某个月份时计算该月命中的日期
+     * @param rules 规则列表, 为null时清空
+     */
+    public void setRecurrenceRules(List<RecurrenceRule> rules) {
+        recurrenceSet.setRules(rules);
+        renderVersion++;
         invalidate();
     }
 
+    /**
+     * 设置法定节假日、调休上班日数据, 事务中没有休、班标志的日期按它绘制‘班’、‘休’
+     * 默认为WorkdayCalendar.getDefault()
+     *
+     * @param calendar 为null时只使用事务中的休、班标志
+     */
+    public void setWorkdayCalendar(WorkdayCalendar calendar) {
+        workdayCalendar = calendar;
+        renderVersion++;
+        invalidate();
+    }
+
+    /**
+     * 是否设置了事务数据
+     * @return
+     */
+    protected boolean hasCalendarInfos() {
+        return !frameSnapshot.isEmpty() || !recurrenceSet.isEmpty();
+    }
+
+    /**
+     * 获取指定月份的事务快照, 绘制中的月份直接返回
+     *
+     * @param year
+     * @param month 月, 0~11
+     * @return
+     */
+    protected MonthEvents getMonthEvents(int year, int month) {
+        if (year == drawingYear && month == drawingMonth) {
+            return drawingEvents;
+        }
+        return recurrenceSet.apply(calendarStore.getSnapshot().get(year, month + 1), year, month + 1);
+    }
+
+    /**
+     * 重绘指定日期所在的格子
+     * 只有当日期处于当前绘制的上一月、选中月、下一月时才重绘, 其余情况不做处理
+     *
+     * @param year
+     * @param month 月, 0~11
+     * @param day
+     */
+    private void invalidateDay(int year, int month, int day) {
+        if (!isMonthDrawn(year, month)) {
+            return;
+        }
+        int startX;
+        if (year == selYear && month == selMonth) {
+            startX = indexMonth * width;
+        } else if (year == leftYear && month == leftMonth) {
+            startX = (indexMonth - 1) * width;
+        } else {
+            startX = (indexMonth + 1) * width;
+        }
+        MonthLayout layout = MonthLayout.of(year, month);
+        int column = layout.getColumn(day);
+        int row = layout.getRow(day);
+        float cellWidth = getWidth() * 1.0F / NUM_COLUMNS;
+        float cellHeight = getHeight() * 1.0F / layout.getRows();
+        /** ‘班’、‘休’等装饰可能略微超出格子, 左右各多刷新半个格子 */
+        float left = startX + cellWidth * column - cellWidth / 2;
+        float top = cellHeight * row;
+        invalidate((int) left, (int) top, (int) Math.ceil(left + cellWidth * 2), (int) Math.ceil(top + cellHeight));
+    }
+
+    /**
+     * 指定月份当前是否被绘制: 选中月, 以及滑动模式下的上一月、下一月
+     *
+     * @param year
+     * @param month 月, 0~11
+     * @return
+     */
+    private boolean isMonthDrawn(int year, int month) {
+        if (year == selYear && month == selMonth) {
+            return true;
+        }
+        if (smoothMode == 1) {
+            /** 没有滑动模式只绘制选中月 */
+            return false;
+        }
+        return (year == leftYear && month == leftMonth) || (year == rightYear && month == rightMonth);
+    }
+
     /**
      * 判断是否为事务天数,通过获取desc来辨别
      *
@@ -328,15 +758,103 @@ public abstract class MonthView extends View {
      * @return
      */
     protected String iscalendarInfo(int year, int month, int day) {
-        if (calendarInfos == null || calendarInfos.size() == 0)
-            return "";
-        for (CalendarInfo calendarInfo : calendarInfos) {
-            if (calendarInfo.day == day && calendarInfo.month == month + 1 && calendarInfo.year == year) {
-                // 返回选择日期的事务
-                return calendarInfo.des;
-            }
+        String des = getMonthEvents(year, month).getDes(day);
+        return des == null ? "" : des;
+    }
+
+    /**
+     * 获取指定日期事务描述在画笔当前字体大小下的宽度, 同一描述只测量一次
+     *
+     * @param year
+     * @param month 月, 0~11
+     * @param day
+     * @return 宽度, 没有描述时返回0
+     */
+    protected float measureDes(int year, int month, int day) {
+        DesLabel label = getMonthEvents(year, month).getDesLabel(day);
+        return label == null ? 0 : label.measure(paint);
+    }
+
+    /**
+     * 日期号字符串, 来自预先生成的常量表, 不创建任何对象
+     *
+     * @param day 日期号, 1~31
+     * @return
+     */
+    protected static String getDayString(int day) {
+        return DayNumbers.get(day);
+    }
+
+    /**
+     * 获取日期号在paint当前字体大小下的宽度, 字体大小不变时每个日期号只测量一次
+     *
+     * @param day 日期号, 1~31
+     * @return
+     */
+    protected float measureDay(int day) {
+        return dayNumbers.measure(paint, day);
+    }
+
+    /**
+     * 获取指定日期的农历, 压缩格式见CalendarUtil.toLunar, 超出农历表范围时返回0
+     * 整月的农历在第一次调用时一次性换算, 同一月份的其余格子直接读取数组
+     *
+     * @param year
+     * @param month 月, 0~11
+     * @param day
+     * @return
+     */
+    protected int getLunar(int year, int month, int day) {
+        if (year != lunarGridYear || month != lunarGridMonth) {
+            CalendarUtil.toLunarMonth(year, month + 1, lunarGrid);
+            /** 格子从1号所在周的周日开始 */
+            int firstDay = DateUtils.toEpochDay(year, month + 1, 1);
+            lunarGridOffset = ((firstDay + 4) % 7 + 7) % 7 - 1;
+            lunarGridYear = year;
+            lunarGridMonth = month;
         }
-        return "";
+        return lunarGrid[day + lunarGridOffset];
+    }
+
+    /**
+     * 获取日期格子中展示的标签: 农历节日、节气、公历节日或农历日期, 来自所有控件共用的DayLabelCache
+     *
+     * @param year
+     * @param month 月, 0~11
+     * @param day
+     * @return
+     */
+    protected String getDayLabel(int year, int month, int day) {
+        return DayLabelCache.getLabel(year, month + 1, day);
+    }
+
+    /**
+     * 获取指定日期的事务条数
+     *
+     * @param year
+     * @param month 月, 0~11
+     * @param day
+     * @return
+     */
+    protected int getCalendarCount(int year, int month, int day) {
+        return getMonthEvents(year, month).getCount(day);
+    }
+
+    /**
+     * 获取指定日期占多数的休、班标志
+     * 事务中没有休、班标志时查法定节假日位图
+     *
+     * @param year
+     * @param month 月, 0~11
+     * @param day
+     * @return 1为休，2为班，0为普通日期
+     */
+    protected int getRest(int year, int month, int day) {
+        int rest = getMonthEvents(year, month).getRest(day);
+        if (rest == 0 && workdayCalendar != null) {
+            rest = workdayCalendar.getRest(year, month + 1, day);
+        }
+        return rest;
     }
 
     /**
@@ -346,11 +864,17 @@ public abstract class MonthView extends View {
      * @param y
      */
     private void doClickAction(int x, int y) {
-        /** 计算行列 */
-        int row = (int) (y / rowSize);
-        int column = (int) (x / columnSize);
+        /** 按选中月份的布局计算行列, 不依赖最后绘制的是哪个月份 */
+        MonthLayout layout = MonthLayout.of(selYear, selMonth);
+        int row = (int) (y * layout.getRows() / (float) getHeight());
+        int column = (int) (x * NUM_COLUMNS / (float) getWidth());
+        int day = layout.getDay(row, column);
+        if (day == 0) {
+            /** 点击的是空白格子 */
+            return;
+        }
         /** 设置选中的日期 */
-        setSelectDate(selYear, selMonth, daysString[row][column]);
+        setSelectDate(selYear, selMonth, day);
         /** 重绘 */
         invalidate();
         //执行activity发送过来的点击处理事件
@@ -404,6 +928,7 @@ public abstract class MonthView extends View {
             month = month - 1;
         }
         setSelectDate(year, month, day);
+        pageDirection = -1;
         computeDate();
     }
 
@@ -425,6 +950,7 @@ public abstract class MonthView extends View {
             month = month + 1;
         }
         setSelectDate(year, month, day);
+        pageDirection = 1;
         computeDate();
     }
 
@@ -451,6 +977,8 @@ public abstract class MonthView extends View {
             rightYear = selYear;
             rightMonth = selMonth + 1;
         }
+        /** 从数据源拉取新的可见月份, 并沿翻页方向预取 */
+        calendarStore.loadMonths(selYear, selMonth + 1, pageDirection);
         /**  */
         if (monthLisener != null) {
             monthLisener.setTextMonth();
@@ -487,6 +1015,7 @@ public abstract class MonthView extends View {
      */
     public void setTheme(IDayTheme theme) {
         this.theme = theme;
+        renderVersion++;
         invalidate();
     }
 
@@ -0,0 +1,283 @@
+package com.dsw.calendar.entity;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 事务数据的列式存储
+ *
+ * 每条事务占一行, 各字段分别保存在基本类型数组中: 压缩日期 int[], 休/班标志 byte[],
+ * 描述编号 int[](指向去重的DesPool)。同一天的事务通过 next[] 按加入顺序串成链表,
+ * 链表头由CalendarInfoIndex按日期索引。删除的行进入空闲链表复用, 不产生碎片对象。
+ * 几十万条事务只占用几个数组, 不再为每条事务保留一个对象, CalendarInfo只作为输入输出的数据载体。
+ * 非线程安全, 只在CalendarStore的后台线程中使用。
+ */
+public class CalendarColumns {
+    private static final int NONE = CalendarInfoIndex.NONE;
+
+    private int[] dates;
+    private byte[] rests;
+    private int[] desIds;
+    private int[] next;
+    /**
+     * 已使用过的最大行数
+     */
+    private int used;
+    /**
+     * 空闲行链表头
+     */
+    private int freeHead = NONE;
+    private int size;
+    private final CalendarInfoIndex heads;
+    private final DesPool desPool;
+
+    /**
+     * 构造函数
+     * @param expectedSize 预计存放的事务数
+     */
+    public CalendarColumns(int expectedSize) {
+        this(expectedSize, new DesPool());
+    }
+
+    /**
+     * 构造函数
+     * @param expectedSize 预计存放的事务数
+     * @param desPool      共用的描述池
+     */
+    public CalendarColumns(int expectedSize, DesPool desPool) {
+        this.desPool = desPool;
+        int capacity = Math.max(expectedSize, 16);
+        dates = new int[capacity];
+        rests = new byte[capacity];
+        desIds = new int[capacity];
+        next = new int[capacity];
+        heads = new CalendarInfoIndex(expectedSize);
+    }
+
+    /**
+     * 根据事务列表构建列式存储
+     * @param calendarInfos 事务列表, 可以为null
+     * @param desPool       共用的描述池
+     * @return
+     */
+    public static CalendarColumns build(List<CalendarInfo> calendarInfos, DesPool desPool) {
+        if (calendarInfos == null) {
+            return new CalendarColumns(0, desPool);
+        }
+        CalendarColumns columns = new CalendarColumns(calendarInfos.size(), desPool);
+        for (int i = 0, count = calendarInfos.size(); i < count; i++) {
+            CalendarInfo calendarInfo = calendarInfos.get(i);
+            if (calendarInfo != null) {
+                columns.add(calendarInfo);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * 追加一条事务到所在日期
+     * @param calendarInfo 事务
+     */
+    public void add(CalendarInfo calendarInfo) {
+        int date = CalendarInfoIndex.packDate(calendarInfo.year, calendarInfo.month, calendarInfo.day);
+        int row = allocate(date, desPool.intern(calendarInfo.des), calendarInfo.rest);
+        int head = heads.get(date);
+        if (head == NONE) {
+            heads.put(date, row);
+            return;
+        }
+        int tail = head;
+        while (next[tail] != NONE) {
+            tail = next[tail];
+        }
+        next[tail] = row;
+    }
+
+    /**
+     * 用一条事务替换所在日期的全部事务
+     * @param calendarInfo 事务
+     */
+    public void replace(CalendarInfo calendarInfo) {
+        removeDay(CalendarInfoIndex.packDate(calendarInfo.year, calendarInfo.month, calendarInfo.day));
+        add(calendarInfo);
+    }
+
+    /**
+     * 删除所在日期上描述与calendarInfo相同的事务; calendarInfo.des为null时删除该日期的全部事务
+     * @param calendarInfo 事务
+     * @return 是否有事务被删除
+     */
+    public boolean removeMatching(CalendarInfo calendarInfo) {
+        int date = CalendarInfoIndex.packDate(calendarInfo.year, calendarInfo.month, calendarInfo.day);
+        if (calendarInfo.des == null) {
+            return removeDay(date);
+        }
+        int desId = desPool.find(calendarInfo.des);
+        int head = heads.get(date);
+        if (desId < 0 || head == NONE) {
+            return false;
+        }
+        boolean removed = false;
+        int prev = NONE;
+        int row = head;
+        while (row != NONE) {
+            int following = next[row];
+            if (desIds[row] == desId) {
+                if (prev == NONE) {
+                    head = following;
+                } else {
+                    next[prev] = following;
+                }
+                release(row);
+                removed = true;
+            } else {
+                prev = row;
+            }
+            row = following;
+        }
+        if (head == NONE) {
+            heads.remove(date);
+        } else {
+            heads.put(date, head);
+        }
+        return removed;
+    }
+
+    /**
+     * 删除指定日期的全部事务
+     * @param date 压缩日期
+     * @return 是否有事务被删除
+     */
+    public boolean removeDay(int date) {
+        int row = heads.remove(date);
+        if (row == NONE) {
+            return false;
+        }
+        while (row != NONE) {
+            int following = next[row];
+            release(row);
+            row = following;
+        }
+        return true;
+    }
+
+    /**
+     * 删除指定月份的全部事务
+     * @param year  年
+     * @param month 月, 1~12
+     */
+    public void removeMonth(int year, int month) {
+        for (int day = 1; day <= 31 && size > 0; day++) {
+            removeDay(CalendarInfoIndex.packDate(year, month, day));
+        }
+    }
+
+    /**
+     * 释放全部事务对描述池的引用, 整体替换为新的存储后调用, 之后不应再使用本对象
+     */
+    public void releaseDes() {
+        for (int row = 0; row < used; row++) {
+            if (dates[row] != 0) {
+                desPool.release(desIds[row]);
+                desIds[row] = DesPool.NULL_ID;
+            }
+        }
+    }
+
+    /**
+     * 指定日期第一条事务的行号
+     * @param date 压缩日期
+     * @return 行号, 没有时返回CalendarInfoIndex.NONE
+     */
+    public int head(int date) {
+        return heads.get(date);
+    }
+
+    /**
+     * 同一日期的下一条事务的行号
+     * @param row 行号
+     * @return 行号, 没有时返回CalendarInfoIndex.NONE
+     */
+    public int next(int row) {
+        return next[row];
+    }
+
+    /**
+     * @param row 行号
+     * @return 压缩日期
+     */
+    public int date(int row) {
+        return dates[row];
+    }
+
+    /**
+     * @param row 行号
+     * @return 休、班标志
+     */
+    public int rest(int row) {
+        return rests[row];
+    }
+
+    /**
+     * @param row 行号
+     * @return 描述编号
+     */
+    public int desId(int row) {
+        return desIds[row];
+    }
+
+    /**
+     * @return 描述池
+     */
+    public DesPool getDesPool() {
+        return desPool;
+    }
+
+    /**
+     * 事务总数
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 有事务的月份, 升序且不重复
+     * @return yyyymm 数组
+     */
+    int[] monthKeys() {
+        return heads.monthKeys();
+    }
+
+    private int allocate(int date, int desId, int rest) {
+        int row;
+        if (freeHead != NONE) {
+            row = freeHead;
+            freeHead = next[row];
+        } else {
+            if (used == dates.length) {
+                int capacity = used + (used >> 1);
+                dates = Arrays.copyOf(dates, capacity);
+                rests = Arrays.copyOf(rests, capacity);
+                desIds = Arrays.copyOf(desIds, capacity);
+                next = Arrays.copyOf(next, capacity);
+            }
+            row = used++;
+        }
+        dates[row] = date;
+        rests[row] = (byte) rest;
+        desIds[row] = desId;
+        next[row] = NONE;
+        size++;
+        return row;
+    }
+
+    private void release(int row) {
+        desPool.release(desIds[row]);
+        desIds[row] = DesPool.NULL_ID;
+        dates[row] = 0;
+        next[row] = freeHead;
+        freeHead = row;
+        size--;
+    }
+}
@@ -0,0 +1,257 @@
+package com.dsw.calendar.entity;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * 事务数据的二进制文件, 通过内存映射直接读取
+ *
+ * 文件格式(大端序):
+ * <pre>
+ * 头部       magic, version, dateCount, entryCount, stringCount     各4字节
+ * 日期表     dateCount个 yyyymmdd, 升序                            int[dateCount]
+ * 偏移表     每个日期第一条事务的下标, 末尾多一个entryCount            int[dateCount + 1]
+ * 事务表     描述编号 << 2 | 休班标志, 同一日期按加入顺序              int[entryCount]
+ * 字符串偏移 每个描述在字符串区中的起始位置, 末尾多一个总长度, 编号0为null  int[stringCount + 1]
+ * 字符串区   UTF-8
+ * </pre>
+ * 启动时只需映射文件, 不做任何解析; 作为MonthDataSource使用时, 切换月份才在日期表中二分查找该月的事务,
+ * 每个描述只在第一次用到时解码一次。
+ */
+public class CalendarFile implements MonthDataSource {
+    private static final int MAGIC = 0x43414C46;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 20;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final MappedByteBuffer buffer;
+    private final int dateCount;
+    private final int dateTable;
+    private final int offsetTable;
+    private final int entryTable;
+    private final int stringOffsetTable;
+    private final int stringData;
+    /**
+     * 已解码的描述, 按编号缓存
+     */
+    private final String[] strings;
+
+    private CalendarFile(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("not a calendar file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("unsupported calendar file version " + buffer.getInt(4));
+        }
+        dateCount = buffer.getInt(8);
+        int entryCount = buffer.getInt(12);
+        int stringCount = buffer.getInt(16);
+        dateTable = HEADER_SIZE;
+        offsetTable = dateTable + dateCount * 4;
+        entryTable = offsetTable + (dateCount + 1) * 4;
+        stringOffsetTable = entryTable + entryCount * 4;
+        stringData = stringOffsetTable + (stringCount + 1) * 4;
+        if (stringData > buffer.capacity()) {
+            throw new IOException("truncated calendar file");
+        }
+        strings = new String[stringCount];
+    }
+
+    /**
+     * 以只读方式映射文件
+     * @param file 由write写出的文件
+     * @return
+     * @throws IOException 文件不存在或格式不正确
+     */
+    public static CalendarFile open(File file) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            /** 映射建立后关闭文件不影响读取 */
+            return new CalendarFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * 把事务写成二进制文件, 同一日期的事务保持列表中的先后顺序
+     * 先写到同目录下的临时文件并同步到磁盘, 再重命名覆盖目标文件: 写入中途失败或进程被杀时目标文件保持原样,
+     * 已经映射旧文件的CalendarFile也不受影响。
+     * @param file          目标文件, 已存在时覆盖
+     * @param calendarInfos 事务列表
+     * @throws IOException
+     */
+    public static void write(File file, List<CalendarInfo> calendarInfos) throws IOException {
+        List<CalendarInfo> sorted = new ArrayList<CalendarInfo>(calendarInfos.size());
+        for (CalendarInfo calendarInfo : calendarInfos) {
+            if (calendarInfo != null) {
+                sorted.add(calendarInfo);
+            }
+        }
+        /** 稳定排序, 同一日期保持原有顺序 */
+        Collections.sort(sorted, new Comparator<CalendarInfo>() {
+            @Override
+            public int compare(CalendarInfo lhs, CalendarInfo rhs) {
+                int l = CalendarInfoIndex.packDate(lhs.year, lhs.month, lhs.day);
+                int r = CalendarInfoIndex.packDate(rhs.year, rhs.month, rhs.day);
+                return l < r ? -1 : (l == r ? 0 : 1);
+            }
+        });
+
+        int entryCount = sorted.size();
+        int[] dates = new int[entryCount];
+        int[] offsets = new int[entryCount + 1];
+        int[] entries = new int[entryCount];
+        int dateCount = 0;
+        HashMap<String, Integer> ids = new HashMap<String, Integer>();
+        List<byte[]> stringBytes = new ArrayList<byte[]>();
+        for (int i = 0; i < entryCount; i++) {
+            CalendarInfo calendarInfo = sorted.get(i);
+            int date = CalendarInfoIndex.packDate(calendarInfo.year, calendarInfo.month, calendarInfo.day);
+            if (dateCount == 0 || dates[dateCount - 1] != date) {
+                dates[dateCount] = date;
+                offsets[dateCount++] = i;
+            }
+            int desId = 0;
+            if (calendarInfo.des != null) {
+                Integer id = ids.get(calendarInfo.des);
+                if (id == null) {
+                    stringBytes.add(calendarInfo.des.getBytes(UTF_8));
+                    id = stringBytes.size();
+                    ids.put(calendarInfo.des, id);
+                }
+                desId = id;
+            }
+            entries[i] = desId << 2 | (calendarInfo.rest & 3);
+        }
+        offsets[dateCount] = entryCount;
+
+        File temp = new File(file.getPath() + ".tmp");
+        boolean renamed = false;
+        try {
+            FileOutputStream fileOut = new FileOutputStream(temp);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut));
+            try {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(dateCount);
+                out.writeInt(entryCount);
+                out.writeInt(stringBytes.size() + 1);
+                for (int i = 0; i < dateCount; i++) {
+                    out.writeInt(dates[i]);
+                }
+                for (int i = 0; i <= dateCount; i++) {
+                    out.writeInt(offsets[i]);
+                }
+                for (int entry : entries) {
+                    out.writeInt(entry);
+                }
+                /** 编号0为null, 长度为0 */
+                int position = 0;
+                out.writeInt(position);
+                out.writeInt(position);
+                for (byte[] bytes : stringBytes) {
+                    position += bytes.length;
+                    out.writeInt(position);
+                }
+                for (byte[] bytes : stringBytes) {
+                    out.write(bytes);
+                }
+                out.flush();
+                fileOut.getFD().sync();
+            } finally {
+                out.close();
+            }
+            renamed = temp.renameTo(file);
+            if (!renamed) {
+                throw new IOException("failed to rename " + temp + " to " + file);
+            }
+        } finally {
+            if (!renamed) {
+                temp.delete();
+            }
+        }
+    }
+
+    /**
+     * 读取指定月份的事务, 在CalendarStore的后台线程中调用
+     * @param year  年
+     * @param month 月, 1~12
+     * @return
+     */
+    @Override
+    public List<CalendarInfo> loadMonth(int year, int month) {
+        int first = firstDateAtLeast(CalendarInfoIndex.packDate(year, month, 1));
+        int monthKey = CalendarSnapshot.monthKey(year, month);
+        List<CalendarInfo> calendarInfos = new ArrayList<CalendarInfo>();
+        for (int i = first; i < dateCount; i++) {
+            int date = buffer.getInt(dateTable + i * 4);
+            if (date / 100 != monthKey) {
+                break;
+            }
+            int end = buffer.getInt(offsetTable + (i + 1) * 4);
+            for (int entry = buffer.getInt(offsetTable + i * 4); entry < end; entry++) {
+                int value = buffer.getInt(entryTable + entry * 4);
+                calendarInfos.add(new CalendarInfo(year, month, date % 100, string(value >>> 2), value & 3));
+            }
+        }
+        return calendarInfos;
+    }
+
+    /**
+     * 文件中不同日期的个数
+     * @return
+     */
+    public int getDateCount() {
+        return dateCount;
+    }
+
+    /**
+     * 日期表中第一个不小于date的下标
+     */
+    private int firstDateAtLeast(int date) {
+        int lo = 0;
+        int hi = dateCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (buffer.getInt(dateTable + mid * 4) < date) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private String string(int id) {
+        if (id == 0) {
+            return null;
+        }
+        String string = strings[id];
+        if (string == null) {
+            int start = buffer.getInt(stringOffsetTable + id * 4);
+            int end = buffer.getInt(stringOffsetTable + (id + 1) * 4);
+            byte[] bytes = new byte[end - start];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = buffer.get(stringData + start + i);
+            }
+            string = new String(bytes, UTF_8);
+            strings[id] = string;
+        }
+        return string;
+    }
+}
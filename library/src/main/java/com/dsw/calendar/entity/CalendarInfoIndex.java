@@ -0,0 +1,182 @@
+package com.dsw.calendar.entity;
+
+import java.util.Arrays;
+
+/**
+ * 事务数据的日期索引
+ *
+ * 以压缩日期 yyyymmdd 为键、int为值的开放寻址散列表(线性探测), 键和值都保存在 int[] 中,
+ * 查询不产生任何对象分配, 时间复杂度 O(1), 与事务总数无关。
+ * 值为CalendarColumns中该日期第一条事务所在的行号。
+ * 支持原地增加、替换、删除, 删除采用后移填补(backward shift), 不留墓碑。
+ */
+public class CalendarInfoIndex {
+    /**
+     * 查询不到时返回的值
+     */
+    public static final int NONE = -1;
+    /**
+     * 空槽标记, 合法日期压缩后不可能为0
+     */
+    private static final int EMPTY = 0;
+    /**
+     * 键: 压缩日期
+     */
+    private int[] keys;
+    /**
+     * 值: 行号
+     */
+    private int[] values;
+    /**
+     * 下标掩码, 容量恒为2的幂
+     */
+    private int mask;
+    private int size;
+
+    /**
+     * 构造函数
+     * @param expectedSize 预计存放的日期数
+     */
+    public CalendarInfoIndex(int expectedSize) {
+        /** 负载因子不超过0.5, 保证探测链足够短 */
+        int capacity = 4;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * 压缩日期
+     * @param year  年
+     * @param month 月, 1~12
+     * @param day   日
+     * @return yyyymmdd
+     */
+    public static int packDate(int year, int month, int day) {
+        return year * 10000 + month * 100 + day;
+    }
+
+    /**
+     * 设置日期对应的值, 已存在时替换
+     * @param date  压缩日期
+     * @param value 值
+     */
+    public void put(int date, int value) {
+        int slot = slotOf(date);
+        if (keys[slot] == date) {
+            values[slot] = value;
+            return;
+        }
+        keys[slot] = date;
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            resize();
+        }
+    }
+
+    /**
+     * 查询日期对应的值
+     * @param date 压缩日期
+     * @return 值, 没有时返回NONE
+     */
+    public int get(int date) {
+        if (size == 0) {
+            return NONE;
+        }
+        int slot = slotOf(date);
+        return keys[slot] == date ? values[slot] : NONE;
+    }
+
+    /**
+     * 删除日期
+     * @param date 压缩日期
+     * @return 被删除的值, 没有时返回NONE
+     */
+    public int remove(int date) {
+        int slot = slotOf(date);
+        if (keys[slot] == EMPTY) {
+            return NONE;
+        }
+        int old = values[slot];
+        /** 把探测链上后面的元素前移填补空洞, 保证后续查找不会提前遇到空槽 */
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+        return old;
+    }
+
+    /**
+     * 已索引的日期数
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 已索引日期所在的月份, 升序且不重复
+     * @return yyyymm 数组
+     */
+    int[] monthKeys() {
+        int[] months = new int[size];
+        int n = 0;
+        for (int key : keys) {
+            if (key != EMPTY) {
+                months[n++] = key / 100;
+            }
+        }
+        Arrays.sort(months, 0, n);
+        int unique = 0;
+        for (int i = 0; i < n; i++) {
+            if (unique == 0 || months[unique - 1] != months[i]) {
+                months[unique++] = months[i];
+            }
+        }
+        return Arrays.copyOf(months, unique);
+    }
+
+    /**
+     * 查找键所在的槽, 不存在时返回探测链末尾的空槽
+     */
+    private int slotOf(int key) {
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(int key) {
+        /** 压缩日期低位分布不均, 乘以黄金分割常数打散 */
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length << 1];
+        values = new int[oldKeys.length << 1];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
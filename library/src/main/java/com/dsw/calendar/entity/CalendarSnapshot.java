@@ -0,0 +1,96 @@
+package com.dsw.calendar.entity;
+
+import java.util.Arrays;
+
+/**
+ * 全部事务的不可变快照, 由若干月份快照组成
+ *
+ * 月份按 yyyymm 升序保存, 查找为二分查找, 每个月份只在绘制开始时查找一次。
+ * 修改时复制出新的快照(只替换受影响的月份), 由CalendarStore原子替换发布。
+ */
+public final class CalendarSnapshot {
+    public static final CalendarSnapshot EMPTY = new CalendarSnapshot(new int[0], new MonthEvents[0]);
+
+    private final int[] monthKeys;
+    private final MonthEvents[] months;
+
+    private CalendarSnapshot(int[] monthKeys, MonthEvents[] months) {
+        this.monthKeys = monthKeys;
+        this.months = months;
+    }
+
+    /**
+     * 获取指定月份的事务
+     * @param year  年
+     * @param month 月, 1~12
+     * @return 月份快照, 没有事务时返回MonthEvents.EMPTY
+     */
+    public MonthEvents get(int year, int month) {
+        int i = Arrays.binarySearch(monthKeys, monthKey(year, month));
+        return i < 0 ? MonthEvents.EMPTY : months[i];
+    }
+
+    /**
+     * 是否没有任何事务
+     * @return
+     */
+    public boolean isEmpty() {
+        return monthKeys.length == 0;
+    }
+
+    static int monthKey(int year, int month) {
+        return year * 100 + month;
+    }
+
+    /**
+     * 根据列式存储构建完整快照
+     * @param columns 列式存储
+     * @return 快照
+     */
+    static CalendarSnapshot build(CalendarColumns columns) {
+        int[] monthKeys = columns.monthKeys();
+        MonthEvents[] months = new MonthEvents[monthKeys.length];
+        for (int i = 0; i < monthKeys.length; i++) {
+            months[i] = MonthEvents.build(columns, monthKeys[i] / 100, monthKeys[i] % 100);
+        }
+        return new CalendarSnapshot(monthKeys, months);
+    }
+
+    /**
+     * 复制出一份替换了指定月份的快照, 月份为空时移除
+     * @param monthEvents 新的月份快照
+     * @return 新快照
+     */
+    CalendarSnapshot with(MonthEvents monthEvents) {
+        int key = monthKey(monthEvents.getYear(), monthEvents.getMonth());
+        int i = Arrays.binarySearch(monthKeys, key);
+        boolean empty = monthEvents.isEmpty();
+        if (i >= 0) {
+            if (!empty) {
+                MonthEvents[] newMonths = months.clone();
+                newMonths[i] = monthEvents;
+                return new CalendarSnapshot(monthKeys, newMonths);
+            }
+            int[] newKeys = new int[monthKeys.length - 1];
+            MonthEvents[] newMonths = new MonthEvents[months.length - 1];
+            System.arraycopy(monthKeys, 0, newKeys, 0, i);
+            System.arraycopy(monthKeys, i + 1, newKeys, i, monthKeys.length - i - 1);
+            System.arraycopy(months, 0, newMonths, 0, i);
+            System.arraycopy(months, i + 1, newMonths, i, months.length - i - 1);
+            return new CalendarSnapshot(newKeys, newMonths);
+        }
+        if (empty) {
+            return this;
+        }
+        int insert = -i - 1;
+        int[] newKeys = new int[monthKeys.length + 1];
+        MonthEvents[] newMonths = new MonthEvents[months.length + 1];
+        System.arraycopy(monthKeys, 0, newKeys, 0, insert);
+        System.arraycopy(monthKeys, insert, newKeys, insert + 1, monthKeys.length - insert);
+        System.arraycopy(months, 0, newMonths, 0, insert);
+        System.arraycopy(months, insert, newMonths, insert + 1, months.length - insert);
+        newKeys[insert] = key;
+        newMonths[insert] = monthEvents;
+        return new CalendarSnapshot(newKeys, newMonths);
+    }
+}
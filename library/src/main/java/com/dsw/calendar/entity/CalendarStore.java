@@ -0,0 +1,379 @@
+package com.dsw.calendar.entity;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 事务数据仓库
+ *
+ * 所有写操作都投递到单线程的后台执行器上串行执行: 在后台线程更新列式存储、
+ * 构建受影响月份的不可变快照, 最后通过一次原子引用替换发布新的CalendarSnapshot。
+ * UI线程只读取已发布的快照, 既不加锁, 也不复制、排序任何数据。
+ *
+ * 设置MonthDataSource后, 仓库作为数据源的月份缓存: 按需拉取可见月份并预取滑动方向上的月份,
+ * 最多保留cacheSize个月, 最久未使用的月份连同其事务一起淘汰。
+ */
+public class CalendarStore {
+    private static final String TAG = "CalendarStore";
+    /**
+     * 所有日历控件共用的后台线程
+     */
+    private static final Executor INGEST_EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "calendar-ingest");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }
+    });
+
+    private static final int OP_ADD = 0;
+    private static final int OP_UPDATE = 1;
+    private static final int OP_REMOVE = 2;
+
+    private final Executor executor;
+    private final AtomicReference<CalendarSnapshot> snapshot =
+            new AtomicReference<CalendarSnapshot>(CalendarSnapshot.EMPTY);
+    private final AtomicReference<SpanIndex> spans = new AtomicReference<SpanIndex>(SpanIndex.EMPTY);
+    /**
+     * 描述池, 重新设置数据时保留, 仍被引用的相同描述始终是同一个实例
+     */
+    private final DesPool desPool = new DesPool();
+    /**
+     * 列式存储的全部事务, 只在后台线程中访问
+     */
+    private CalendarColumns columns = new CalendarColumns(0, desPool);
+    private volatile OnStoreChangeListener listener;
+    /**
+     * 按月拉取的数据源及其缓存, 只在后台线程中访问
+     */
+    private MonthDataSource dataSource;
+    private int cacheSize;
+    private int prefetchCount;
+    /**
+     * 已载入的月份 yyyymm, 按访问顺序排列
+     */
+    private final LinkedHashMap<Integer, Boolean> loadedMonths = new LinkedHashMap<Integer, Boolean>(16, 0.75f, true);
+
+    public CalendarStore() {
+        this(INGEST_EXECUTOR);
+    }
+
+    /**
+     * 构造函数
+     * @param executor 执行写操作的执行器, 必须串行执行提交的任务
+     */
+    public CalendarStore(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 获取当前发布的快照, 任何线程都可以调用
+     * @return
+     */
+    public CalendarSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * 获取当前发布的跨天事务索引, 任何线程都可以调用
+     * @return
+     */
+    public SpanIndex getSpans() {
+        return spans.get();
+    }
+
+    /**
+     * 整体替换跨天事务, 在后台线程中构建区间索引
+     * @param spanEvents 跨天事务列表, 可以为null
+     */
+    public void setSpanEvents(final List<SpanEvent> spanEvents) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                spans.set(SpanIndex.build(spanEvents));
+                OnStoreChangeListener l = listener;
+                if (l != null) {
+                    l.onSnapshotReplaced();
+                }
+            }
+        });
+    }
+
+    /**
+     * 整体替换事务数据
+     * 列表只在后台线程中读取一次, 此后不再持有引用; 读取完成前调用方不应再修改它
+     * @param calendarInfos 事务列表, 可以为null
+     */
+    public void setCalendarInfos(final List<CalendarInfo> calendarInfos) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                CalendarColumns old = columns;
+                columns = CalendarColumns.build(calendarInfos, desPool);
+                old.releaseDes();
+                loadedMonths.clear();
+                snapshot.set(CalendarSnapshot.build(columns));
+                OnStoreChangeListener l = listener;
+                if (l != null) {
+                    l.onSnapshotReplaced();
+                }
+            }
+        });
+    }
+
+    /**
+     * 新增事务, 追加到所在日期已有的事务之后
+     * 调用时复制列表及其中的事务, 返回后调用方可以继续修改或复用它们; 下同
+     * @param calendarInfos
+     */
+    public void addCalendarInfos(List<CalendarInfo> calendarInfos) {
+        submit(OP_ADD, calendarInfos);
+    }
+
+    public void addCalendarInfo(CalendarInfo calendarInfo) {
+        submit(OP_ADD, Collections.singletonList(calendarInfo));
+    }
+
+    /**
+     * 更新事务, 以日期为单位替换: 列表中同一日期的事务一起替换该日期原有的全部事务
+     * @param calendarInfos
+     */
+    public void updateCalendarInfos(List<CalendarInfo> calendarInfos) {
+        submit(OP_UPDATE, calendarInfos);
+    }
+
+    public void updateCalendarInfo(CalendarInfo calendarInfo) {
+        submit(OP_UPDATE, Collections.singletonList(calendarInfo));
+    }
+
+    /**
+     * 删除事务, 同一日期上描述相同的事务都会被删除; des为null时删除该日期的全部事务
+     * @param calendarInfos
+     */
+    public void removeCalendarInfos(List<CalendarInfo> calendarInfos) {
+        submit(OP_REMOVE, calendarInfos);
+    }
+
+    public void removeCalendarInfo(CalendarInfo calendarInfo) {
+        submit(OP_REMOVE, Collections.singletonList(calendarInfo));
+    }
+
+    /**
+     * 设置按月拉取的数据源, 同时清空已有数据
+     *
+     * @param source        数据源, 为null时取消
+     * @param cacheSize     最多缓存的月份数, 至少能容纳可见的三个月和预取的月份
+     * @param prefetchCount 沿滑动方向预取的月份数
+     */
+    public void setMonthDataSource(final MonthDataSource source, final int cacheSize, final int prefetchCount) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                dataSource = source;
+                CalendarStore.this.prefetchCount = Math.max(prefetchCount, 0);
+                CalendarStore.this.cacheSize = Math.max(cacheSize, 3 + CalendarStore.this.prefetchCount * 2);
+                loadedMonths.clear();
+                columns.releaseDes();
+                columns = new CalendarColumns(0, desPool);
+                snapshot.set(CalendarSnapshot.EMPTY);
+                OnStoreChangeListener l = listener;
+                if (l != null) {
+                    l.onSnapshotReplaced();
+                }
+            }
+        });
+    }
+
+    /**
+     * 确保选中月份及其前后月份已载入, 并预取滑动方向上的月份
+     * 没有设置数据源时不做任何处理
+     *
+     * @param year      选中的年
+     * @param month     选中的月, 1~12
+     * @param direction 滑动方向, 1为向后翻页, -1为向前翻页, 0为两侧都预取
+     */
+    public void loadMonths(final int year, final int month, final int direction) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (dataSource == null) {
+                    return;
+                }
+                /** 先载入可见的三个月, 再预取 */
+                loadMonth(year, month, 0);
+                loadMonth(year, month, -1);
+                loadMonth(year, month, 1);
+                for (int i = 1; i <= prefetchCount; i++) {
+                    if (direction >= 0) {
+                        loadMonth(year, month, 1 + i);
+                    }
+                    if (direction <= 0) {
+                        loadMonth(year, month, -1 - i);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * 在后台线程中载入偏移offset个月后的月份, 已缓存时只更新访问顺序
+     */
+    private void loadMonth(int year, int month, int offset) {
+        int total = year * 12 + month - 1 + offset;
+        int y = total / 12;
+        int m = total % 12 + 1;
+        Integer key = CalendarSnapshot.monthKey(y, m);
+        if (loadedMonths.get(key) != null) {
+            return;
+        }
+        List<CalendarInfo> calendarInfos;
+        try {
+            calendarInfos = dataSource.loadMonth(y, m);
+        } catch (RuntimeException e) {
+            /** 载入失败不记录缓存, 下次请求时重试 */
+            Log.w(TAG, "loadMonth failed", e);
+            return;
+        }
+        if (calendarInfos != null) {
+            for (int i = 0, count = calendarInfos.size(); i < count; i++) {
+                CalendarInfo calendarInfo = calendarInfos.get(i);
+                if (calendarInfo != null && calendarInfo.year == y && calendarInfo.month == m) {
+                    columns.add(calendarInfo);
+                }
+            }
+        }
+        loadedMonths.put(key, Boolean.TRUE);
+        CalendarSnapshot next = snapshot.get().with(MonthEvents.build(columns, y, m));
+        /** 淘汰最久未使用的月份 */
+        Iterator<Integer> iterator = loadedMonths.keySet().iterator();
+        while (loadedMonths.size() > cacheSize && iterator.hasNext()) {
+            int evicted = iterator.next();
+            iterator.remove();
+            columns.removeMonth(evicted / 100, evicted % 100);
+            next = next.with(MonthEvents.build(columns, evicted / 100, evicted % 100));
+        }
+        snapshot.set(next);
+        OnStoreChangeListener l = listener;
+        if (l != null) {
+            l.onMonthLoaded(y, m);
+        }
+    }
+
+    /**
+     * 设置数据变化监听, 回调发生在后台线程
+     * @param listener
+     */
+    public void setOnStoreChangeListener(OnStoreChangeListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * 在调用线程中复制事务后交给后台线程, 后台线程读取时调用方可能已经修改或复用了原来的对象
+     * 与setCalendarInfos一致, 忽略null列表及其中的null元素, 避免异常终止共用的后台线程
+     */
+    private void submit(final int op, List<CalendarInfo> calendarInfos) {
+        if (calendarInfos == null) {
+            return;
+        }
+        final List<CalendarInfo> copies = new ArrayList<CalendarInfo>(calendarInfos.size());
+        for (int i = 0, count = calendarInfos.size(); i < count; i++) {
+            CalendarInfo calendarInfo = calendarInfos.get(i);
+            if (calendarInfo != null) {
+                copies.add(new CalendarInfo(calendarInfo.year, calendarInfo.month, calendarInfo.day,
+                        calendarInfo.des, calendarInfo.rest));
+            }
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                apply(op, copies);
+            }
+        });
+    }
+
+    /**
+     * 在后台线程中修改列式存储, 每个受影响的月份只重建一次快照
+     * @param calendarInfos submit复制出的事务, 不含null
+     */
+    private void apply(int op, List<CalendarInfo> calendarInfos) {
+        int count = calendarInfos.size();
+        int[] changed = new int[count];
+        int changedCount = 0;
+        /** 本批次中已被替换过的日期, 同一日期后续的事务追加在替换结果之后 */
+        HashSet<Integer> replaced = op == OP_UPDATE ? new HashSet<Integer>() : null;
+        for (int i = 0; i < count; i++) {
+            CalendarInfo calendarInfo = calendarInfos.get(i);
+            int date = CalendarInfoIndex.packDate(calendarInfo.year, calendarInfo.month, calendarInfo.day);
+            boolean modified = true;
+            if (op == OP_ADD) {
+                columns.add(calendarInfo);
+            } else if (op == OP_UPDATE) {
+                if (replaced.add(date)) {
+                    columns.replace(calendarInfo);
+                } else {
+                    columns.add(calendarInfo);
+                }
+            } else {
+                modified = columns.removeMatching(calendarInfo);
+            }
+            if (modified) {
+                changed[changedCount++] = date;
+            }
+        }
+        if (changedCount == 0) {
+            return;
+        }
+        /** 排序后同一月份的日期相邻, 每个月份只重建一次 */
+        Arrays.sort(changed, 0, changedCount);
+        CalendarSnapshot next = snapshot.get();
+        int lastMonthKey = 0;
+        for (int i = 0; i < changedCount; i++) {
+            int monthKey = changed[i] / 100;
+            if (monthKey != lastMonthKey) {
+                next = next.with(MonthEvents.build(columns, monthKey / 100, monthKey % 100));
+                lastMonthKey = monthKey;
+            }
+        }
+        snapshot.set(next);
+        OnStoreChangeListener l = listener;
+        if (l != null) {
+            l.onDaysChanged(Arrays.copyOf(changed, changedCount));
+        }
+    }
+
+    /**
+     * 数据变化监听
+     */
+    public interface OnStoreChangeListener {
+        /**
+         * 快照或跨天事务被整体替换
+         */
+        void onSnapshotReplaced();
+
+        /**
+         * 部分日期的事务发生变化
+         * @param dates 压缩日期 yyyymmdd
+         */
+        void onDaysChanged(int[] dates);
+
+        /**
+         * 数据源的某个月份载入完成
+         * @param year  年
+         * @param month 月, 1~12
+         */
+        void onMonthLoaded(int year, int month);
+    }
+}
@@ -0,0 +1,40 @@
+package com.dsw.calendar.entity;
+
+import android.graphics.Paint;
+
+/**
+ * DesPool中的一条描述, 附带按字体大小缓存的绘制宽度
+ *
+ * 相同的描述只有一个实例, 绘制时同一个标签在同一字体大小下只测量一次。
+ * 文本在后台线程创建后不再修改; 宽度缓存只在UI线程中读写。
+ */
+public final class DesLabel {
+    private final String text;
+    private float measuredSize = -1;
+    private float width;
+
+    DesLabel(String text) {
+        this.text = text;
+    }
+
+    /**
+     * @return 描述文本
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * 获取描述在当前字体大小下的绘制宽度, 字体大小不变时直接返回缓存值
+     * @param paint 已设置好字体大小的画笔
+     * @return 宽度
+     */
+    public float measure(Paint paint) {
+        float textSize = paint.getTextSize();
+        if (textSize != measuredSize) {
+            width = paint.measureText(text);
+            measuredSize = textSize;
+        }
+        return width;
+    }
+}
@@ -0,0 +1,123 @@
+package com.dsw.calendar.entity;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * 事务描述的字符串池
+ *
+ * 相同的描述在导入时只保留一个DesLabel实例, 列式存储中只记录描述的编号。编号0固定表示null。
+ * 每个编号按引用计数, 最后一条引用它的事务被删除或所在月份被淘汰后即移出池, 编号留给新的描述复用;
+ * 重新设置数据时池会被保留, 新旧数据共有的描述不会被移出, 已缓存的绘制宽度可以继续使用。
+ * 已生成的快照直接持有DesLabel实例, 不受编号复用的影响。
+ * 非线程安全, 只在CalendarStore的后台线程中使用。
+ */
+public class DesPool {
+    /**
+     * null描述的编号
+     */
+    public static final int NULL_ID = 0;
+
+    private DesLabel[] labels = new DesLabel[16];
+    private int[] refs = new int[16];
+    /**
+     * 已移出的编号, 按栈复用
+     */
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    /**
+     * 已分配过的最大编号+1
+     */
+    private int used = 1;
+    private int size = 1;
+    private final HashMap<String, Integer> ids = new HashMap<String, Integer>();
+
+    /**
+     * 获取描述的编号并增加一次引用, 第一次出现时加入池中
+     * 每次调用都要有一次对应的release
+     * @param des 描述
+     * @return 编号
+     */
+    public int intern(String des) {
+        if (des == null) {
+            return NULL_ID;
+        }
+        Integer existing = ids.get(des);
+        if (existing != null) {
+            refs[existing]++;
+            return existing;
+        }
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            if (used == labels.length) {
+                labels = Arrays.copyOf(labels, used << 1);
+                refs = Arrays.copyOf(refs, used << 1);
+            }
+            id = used++;
+        }
+        labels[id] = new DesLabel(des);
+        refs[id] = 1;
+        ids.put(des, id);
+        size++;
+        return id;
+    }
+
+    /**
+     * 减少一次引用, 没有引用时把描述移出池
+     * @param id intern返回的编号
+     */
+    public void release(int id) {
+        if (id == NULL_ID || --refs[id] > 0) {
+            return;
+        }
+        ids.remove(labels[id].getText());
+        labels[id] = null;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount << 1);
+        }
+        freeIds[freeCount++] = id;
+        size--;
+    }
+
+    /**
+     * 查找描述的编号, 不加入池中
+     * @param des 描述
+     * @return 编号, 不在池中时返回-1
+     */
+    public int find(String des) {
+        if (des == null) {
+            return NULL_ID;
+        }
+        Integer id = ids.get(des);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * 根据编号获取描述
+     * @param id 编号
+     * @return 池中的描述实例
+     */
+    public String get(int id) {
+        DesLabel label = labels[id];
+        return label == null ? null : label.getText();
+    }
+
+    /**
+     * 根据编号获取描述标签
+     * @param id 编号
+     * @return 标签, 编号为NULL_ID时返回null
+     */
+    public DesLabel getLabel(int id) {
+        return labels[id];
+    }
+
+    /**
+     * 池中仍被引用的描述个数, 含null
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+}
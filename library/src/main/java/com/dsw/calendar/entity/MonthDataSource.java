@@ -0,0 +1,20 @@
+package com.dsw.calendar.entity;
+
+import java.util.List;
+
+/**
+ * 按月拉取事务数据的数据源
+ *
+ * 日历切换月份时按需调用, 结果缓存在CalendarStore的LRU月份缓存中,
+ * 宿主无需一次性推送全部事务。
+ */
+public interface MonthDataSource {
+    /**
+     * 加载指定月份的事务, 在后台线程中调用, 可以执行耗时操作
+     *
+     * @param year  年
+     * @param month 月, 1~12
+     * @return 该月的事务, 没有时返回null或空列表
+     */
+    List<CalendarInfo> loadMonth(int year, int month);
+}
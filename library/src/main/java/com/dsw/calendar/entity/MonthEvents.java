@@ -0,0 +1,179 @@
+package com.dsw.calendar.entity;
+
+/**
+ * 某一个月的事务快照, 不可变
+ *
+ * 以日期号为下标保存当天事务的聚合结果: 展示的描述, 以及压缩在一个int中的事务条数和休/班标志
+ * (低2位为休/班, 其余位为条数)。绘制时每个格子只读取一个数组元素, 无需遍历当天的事务。
+ * 快照在后台线程构建完成后才发布, 发布后不再修改, UI线程读取时无需加锁。
+ */
+public final class MonthEvents {
+    /**
+     * 没有任何事务的月份
+     */
+    public static final MonthEvents EMPTY = new MonthEvents(0, 0, new DesLabel[32], new int[32]);
+
+    private static final int REST_BITS = 2;
+    private static final int REST_MASK = (1 << REST_BITS) - 1;
+
+    private final int year;
+    private final int month;
+    private final DesLabel[] des;
+    /**
+     * 条数 << 2 | 休班标志
+     */
+    private final int[] packed;
+
+    MonthEvents(int year, int month, DesLabel[] des, int[] packed) {
+        this.year = year;
+        this.month = month;
+        this.des = des;
+        this.packed = packed;
+    }
+
+    /**
+     * @return 年
+     */
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * @return 月, 1~12
+     */
+    public int getMonth() {
+        return month;
+    }
+
+    /**
+     * 指定日期展示的事务描述, 取当天第一条描述不为空的事务
+     * @param day 日
+     * @return 描述, 没有事务时返回null
+     */
+    public String getDes(int day) {
+        DesLabel label = des[day];
+        return label == null ? null : label.getText();
+    }
+
+    /**
+     * 指定日期展示的事务描述标签, 与getDes相同, 附带绘制宽度缓存
+     * @param day 日
+     * @return 标签, 没有事务或描述为null时返回null
+     */
+    public DesLabel getDesLabel(int day) {
+        return des[day];
+    }
+
+    /**
+     * 指定日期占多数的休、班标志, 数量相同时取先加入的
+     * @param day 日
+     * @return 1为休，2为班，0为普通日期
+     */
+    public int getRest(int day) {
+        return packed[day] & REST_MASK;
+    }
+
+    /**
+     * 指定日期的事务条数
+     * @param day 日
+     * @return
+     */
+    public int getCount(int day) {
+        return packed[day] >>> REST_BITS;
+    }
+
+    /**
+     * 是否没有任何事务
+     * @return
+     */
+    public boolean isEmpty() {
+        for (int day = 1; day < packed.length; day++) {
+            if (packed[day] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 从列式存储中取出指定月份的事务, 聚合成快照
+     * @param columns 列式存储
+     * @param year    年
+     * @param month   月, 1~12
+     * @return 快照
+     */
+    static MonthEvents build(CalendarColumns columns, int year, int month) {
+        DesLabel[] des = new DesLabel[32];
+        int[] packed = new int[32];
+        DesPool desPool = columns.getDesPool();
+        for (int day = 1; day <= 31; day++) {
+            int row = columns.head(CalendarInfoIndex.packDate(year, month, day));
+            if (row == CalendarInfoIndex.NONE) {
+                continue;
+            }
+            /** 展示第一条描述不为空的事务; 休、班取数量多的, 相同时取先加入的 */
+            int count = 0, restCount = 0, workCount = 0, firstRest = 0;
+            int desId = columns.desId(row);
+            for (; row != CalendarInfoIndex.NONE; row = columns.next(row)) {
+                count++;
+                int rest = columns.rest(row);
+                if (rest == 1) {
+                    restCount++;
+                } else if (rest == 2) {
+                    workCount++;
+                }
+                if (firstRest == 0 && (rest == 1 || rest == 2)) {
+                    firstRest = rest;
+                }
+                if (isBlank(desPool.get(desId)) && !isBlank(desPool.get(columns.desId(row)))) {
+                    desId = columns.desId(row);
+                }
+            }
+            int rest = restCount == workCount ? firstRest : (restCount > workCount ? 1 : 2);
+            des[day] = desPool.getLabel(desId);
+            packed[day] = count << REST_BITS | rest;
+        }
+        return new MonthEvents(year, month, des, packed);
+    }
+
+    /**
+     * 把重复事务规则在该月的展开结果合并到普通事务中
+     * 普通事务排在前面: 展示的描述优先取普通事务; 普通事务没有休、班标志时才取第一条命中规则的标志
+     * @param base   普通事务快照
+     * @param year   年
+     * @param month  月, 1~12
+     * @param rules  规则
+     * @param masks  每条规则在该月命中的日期掩码
+     * @return 合并后的快照
+     */
+    static MonthEvents merge(MonthEvents base, int year, int month, RecurrenceRule[] rules, int[] masks) {
+        DesLabel[] des = base.des.clone();
+        int[] packed = base.packed.clone();
+        for (int i = 0; i < rules.length; i++) {
+            int mask = masks[i];
+            if (mask == 0) {
+                continue;
+            }
+            RecurrenceRule rule = rules[i];
+            DesLabel label = rule.getDesLabel();
+            for (int day = 1; day <= 31; day++) {
+                if ((mask & (1 << day)) == 0) {
+                    continue;
+                }
+                int rest = packed[day] & REST_MASK;
+                if (rest == 0) {
+                    rest = rule.getRest();
+                }
+                packed[day] = ((packed[day] >>> REST_BITS) + 1) << REST_BITS | rest;
+                if (des[day] == null || (isBlank(des[day].getText()) && label != null && !isBlank(label.getText()))) {
+                    des[day] = label;
+                }
+            }
+        }
+        return new MonthEvents(year, month, des, packed);
+    }
+
+    private static boolean isBlank(String des) {
+        return des == null || des.length() == 0;
+    }
+}
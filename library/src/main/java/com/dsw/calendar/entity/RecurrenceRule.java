@@ -0,0 +1,203 @@
+package com.dsw.calendar.entity;
+
+import com.dsw.calendar.utils.DateUtils;
+
+/**
+ * 重复事务规则, 支持RRULE的一个子集: FREQ(每天/每周/每月/每年)、INTERVAL、COUNT、UNTIL
+ *
+ * 规则本身不展开成CalendarInfo, 只在绘制某个月份时计算出该月命中的日期(见{@link #expand(int, int)}),
+ * 内存占用只与规则数量有关, 与重复次数无关。
+ * 每周按开始日期的星期重复; 每月按开始日期的日号重复, 没有该日号的月份跳过(如31号);
+ * 每年按开始日期的月、日重复, 2月29日只在闰年出现。跳过的日期不计入COUNT。
+ * 规则不可变, with开头的方法返回修改后的新规则。
+ */
+public final class RecurrenceRule {
+    public static final int DAILY = 0;
+    public static final int WEEKLY = 1;
+    public static final int MONTHLY = 2;
+    public static final int YEARLY = 3;
+
+    private final int freq;
+    private final int year;
+    private final int month;
+    private final int day;
+    private final DesLabel des;
+    private final int rest;
+    private final int interval;
+    private final int count;
+    private final int until;
+
+    /**
+     * 构造函数, 从开始日期起无限重复
+     * @param freq  重复频率, DAILY、WEEKLY、MONTHLY、YEARLY
+     * @param year  开始年份
+     * @param month 开始月份, 1~12
+     * @param day   开始日期号
+     * @param des   事务描述
+     */
+    public RecurrenceRule(int freq, int year, int month, int day, String des) {
+        this(freq, year, month, day, des == null ? null : new DesLabel(des), 0, 1, 0, 0);
+    }
+
+    private RecurrenceRule(int freq, int year, int month, int day, DesLabel des, int rest,
+                           int interval, int count, int until) {
+        if (freq < DAILY || freq > YEARLY) {
+            throw new IllegalArgumentException("freq must be DAILY, WEEKLY, MONTHLY or YEARLY");
+        }
+        if (interval < 1) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        this.freq = freq;
+        this.year = year;
+        this.month = month;
+        this.day = day;
+        this.des = des;
+        this.rest = rest;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+    }
+
+    /**
+     * @param interval 每隔几个周期重复一次, 默认为1
+     * @return 新规则
+     */
+    public RecurrenceRule withInterval(int interval) {
+        return new RecurrenceRule(freq, year, month, day, des, rest, interval, count, until);
+    }
+
+    /**
+     * @param count 总共重复的次数(含开始日期), 0为不限
+     * @return 新规则
+     */
+    public RecurrenceRule withCount(int count) {
+        return new RecurrenceRule(freq, year, month, day, des, rest, interval, count, until);
+    }
+
+    /**
+     * @param year  截止年份
+     * @param month 截止月份, 1~12
+     * @param day   截止日期号, 当天包含在内
+     * @return 新规则
+     */
+    public RecurrenceRule withUntil(int year, int month, int day) {
+        int until = CalendarInfoIndex.packDate(year, month, day);
+        return new RecurrenceRule(freq, this.year, this.month, this.day, des, rest, interval, count, until);
+    }
+
+    /**
+     * @param rest 是否为休、班。。1为休，2为班，默认为普通日期
+     * @return 新规则
+     */
+    public RecurrenceRule withRest(int rest) {
+        return new RecurrenceRule(freq, year, month, day, des, rest, interval, count, until);
+    }
+
+    /**
+     * @return 事务描述
+     */
+    public String getDes() {
+        return des == null ? null : des.getText();
+    }
+
+    DesLabel getDesLabel() {
+        return des;
+    }
+
+    /**
+     * @return 1为休，2为班，0为普通日期
+     */
+    public int getRest() {
+        return rest;
+    }
+
+    /**
+     * 计算指定月份中命中规则的日期
+     * @param year  年
+     * @param month 月, 1~12
+     * @return 日期掩码, 第d位为1表示d号命中
+     */
+    public int expand(int year, int month) {
+        int monthIndex = year * 12 + month - 1;
+        int startIndex = this.year * 12 + this.month - 1;
+        if (monthIndex < startIndex || (until != 0 && year * 100 + month > until / 100)) {
+            return 0;
+        }
+        int monthDays = DateUtils.getMonthDays(year, month - 1);
+        int mask;
+        switch (freq) {
+            case DAILY:
+                mask = expandByDays(year, month, monthDays, interval);
+                break;
+            case WEEKLY:
+                mask = expandByDays(year, month, monthDays, interval * 7);
+                break;
+            case MONTHLY:
+                mask = expandMonthly(monthIndex - startIndex, year, month, monthDays);
+                break;
+            default:
+                mask = expandYearly(year, month, monthDays);
+                break;
+        }
+        if (until != 0 && year * 100 + month == until / 100) {
+            /** 截止月份只保留截止日期及之前的日期 */
+            int lastDay = until % 100;
+            if (lastDay < 31) {
+                mask &= (1 << (lastDay + 1)) - 1;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * 按固定天数步长重复: 开始日期之后每step天一次
+     */
+    private int expandByDays(int year, int month, int monthDays, int step) {
+        int start = DateUtils.toEpochDay(this.year, this.month, this.day);
+        int first = DateUtils.toEpochDay(year, month, 1);
+        int last = first + monthDays - 1;
+        /** 本月第一次命中是第几次重复 */
+        int n = first <= start ? 0 : (first - start + step - 1) / step;
+        int mask = 0;
+        for (int date = start + n * step; date <= last; date += step, n++) {
+            if (count > 0 && n >= count) {
+                break;
+            }
+            mask |= 1 << (date - first + 1);
+        }
+        return mask;
+    }
+
+    private int expandMonthly(int monthsFromStart, int year, int month, int monthDays) {
+        if (monthsFromStart % interval != 0 || day > monthDays) {
+            return 0;
+        }
+        if (count > 0) {
+            /** 之前没有该日期号的月份不计入次数 */
+            int n = 0;
+            for (int k = 0; k < monthsFromStart; k += interval) {
+                int index = this.year * 12 + this.month - 1 + k;
+                if (day <= DateUtils.getMonthDays(index / 12, index % 12) && ++n >= count) {
+                    return 0;
+                }
+            }
+        }
+        return 1 << day;
+    }
+
+    private int expandYearly(int year, int month, int monthDays) {
+        int yearsFromStart = year - this.year;
+        if (month != this.month || yearsFromStart % interval != 0 || day > monthDays) {
+            return 0;
+        }
+        if (count > 0) {
+            int n = 0;
+            for (int k = 0; k < yearsFromStart; k += interval) {
+                if (day <= DateUtils.getMonthDays(this.year + k, month - 1) && ++n >= count) {
+                    return 0;
+                }
+            }
+        }
+        return 1 << day;
+    }
+}
@@ -0,0 +1,98 @@
+package com.dsw.calendar.entity;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 一组重复事务规则, 在绘制时按月惰性展开
+ *
+ * 每个月份的展开结果(每条规则在该月命中的日期掩码)缓存在一个小的LRU中, 键为(规则集, 年, 月);
+ * 同时缓存与普通事务合并后的MonthEvents, 普通事务快照没有变化时直接复用。
+ * LRU是按int月份键线性查找的数组, 命中时不装箱、不创建任何对象。
+ * 只在UI线程中使用。
+ */
+public class RecurrenceSet {
+    private static final RecurrenceRule[] NO_RULES = new RecurrenceRule[0];
+    /**
+     * 缓存的月份数, 足够覆盖滑动时绘制的上一月、选中月、下一月及来回翻页
+     */
+    private static final int CACHE_SIZE = 6;
+
+    private RecurrenceRule[] rules = NO_RULES;
+    /**
+     * 缓存的展开结果, 按最近使用排列, 下标0为最近使用
+     */
+    private final Expansion[] cache = new Expansion[CACHE_SIZE];
+
+    /**
+     * 某个月份的展开结果
+     */
+    private static final class Expansion {
+        final int key;
+        final int[] masks;
+        MonthEvents base;
+        MonthEvents merged;
+
+        Expansion(int key, int[] masks) {
+            this.key = key;
+            this.masks = masks;
+        }
+    }
+
+    /**
+     * 替换全部规则, 清空缓存
+     * @param rules 规则列表, 可以为null
+     */
+    public void setRules(List<RecurrenceRule> rules) {
+        this.rules = rules == null || rules.isEmpty() ? NO_RULES : rules.toArray(new RecurrenceRule[rules.size()]);
+        Arrays.fill(cache, null);
+    }
+
+    /**
+     * 是否没有任何规则
+     * @return
+     */
+    public boolean isEmpty() {
+        return rules.length == 0;
+    }
+
+    /**
+     * 把规则在指定月份的展开结果合并到普通事务中
+     * @param base  该月的普通事务快照
+     * @param year  年
+     * @param month 月, 1~12
+     * @return 合并后的快照, 没有规则时直接返回base
+     */
+    public MonthEvents apply(MonthEvents base, int year, int month) {
+        if (rules.length == 0) {
+            return base;
+        }
+        int key = CalendarSnapshot.monthKey(year, month);
+        Expansion expansion = null;
+        int index = 0;
+        while (index < CACHE_SIZE && cache[index] != null) {
+            if (cache[index].key == key) {
+                expansion = cache[index];
+                break;
+            }
+            index++;
+        }
+        if (expansion == null) {
+            int[] masks = new int[rules.length];
+            for (int i = 0; i < rules.length; i++) {
+                masks[i] = rules[i].expand(year, month);
+            }
+            expansion = new Expansion(key, masks);
+            /** 未命中时淘汰最久未使用的一项 */
+            index = Math.min(index, CACHE_SIZE - 1);
+        }
+        /** 移到最前面 */
+        System.arraycopy(cache, 0, cache, 1, index);
+        cache[0] = expansion;
+        if (expansion.merged == null || expansion.base != base) {
+            expansion.base = base;
+            expansion.merged = MonthEvents.merge(base, year, month, rules, expansion.masks);
+        }
+        return expansion.merged;
+    }
+}
@@ -0,0 +1,54 @@
+package com.dsw.calendar.entity;
+
+/**
+ * 跨越多天的事务, 如酒店入住、促销活动
+ *
+ * 一个对象表示整个日期区间(首尾都包含在内), 不需要拆成每天一条CalendarInfo。
+ * 创建后不可修改。
+ */
+public final class SpanEvent {
+    private final int start;
+    private final int end;
+    private final String des;
+
+    /**
+     * 构造函数
+     * @param startYear  开始年份
+     * @param startMonth 开始月份, 1~12
+     * @param startDay   开始日期号
+     * @param endYear    结束年份
+     * @param endMonth   结束月份, 1~12
+     * @param endDay     结束日期号, 当天包含在内
+     * @param des        事务描述
+     */
+    public SpanEvent(int startYear, int startMonth, int startDay,
+                     int endYear, int endMonth, int endDay, String des) {
+        this.start = CalendarInfoIndex.packDate(startYear, startMonth, startDay);
+        this.end = CalendarInfoIndex.packDate(endYear, endMonth, endDay);
+        if (end < start) {
+            throw new IllegalArgumentException("end date is before start date");
+        }
+        this.des = des;
+    }
+
+    /**
+     * @return 开始日期, yyyymmdd
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * @return 结束日期, yyyymmdd
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * @return 事务描述
+     */
+    public String getDes() {
+        return des;
+    }
+}
@@ -0,0 +1,126 @@
+package com.dsw.calendar.entity;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 跨天事务的区间索引, 不可变
+ *
+ * 事务按开始日期排序后存成一棵隐式的平衡区间树: 区间[lo, hi)的根为中点,
+ * 每个节点记录子树中最大的结束日期, 查询时跳过结束日期早于查询区间的子树,
+ * 以及开始日期晚于查询区间的右侧部分。查询"与某个月相交的事务"为 O(log n + k)。
+ */
+public final class SpanIndex {
+    public static final SpanIndex EMPTY = new SpanIndex(new SpanEvent[0]);
+
+    /**
+     * 按开始日期排序, 开始日期相同时按结束日期排序
+     */
+    private final SpanEvent[] spans;
+    private final int[] starts;
+    private final int[] ends;
+    /**
+     * 以该下标为根的子树中最大的结束日期
+     */
+    private final int[] maxEnds;
+
+    private SpanIndex(SpanEvent[] spans) {
+        this.spans = spans;
+        int n = spans.length;
+        starts = new int[n];
+        ends = new int[n];
+        maxEnds = new int[n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = spans[i].getStart();
+            ends[i] = spans[i].getEnd();
+        }
+        buildMaxEnds(0, n);
+    }
+
+    /**
+     * 根据事务列表构建索引
+     * @param spanEvents 事务列表, 可以为null
+     * @return
+     */
+    public static SpanIndex build(List<SpanEvent> spanEvents) {
+        if (spanEvents == null || spanEvents.isEmpty()) {
+            return EMPTY;
+        }
+        SpanEvent[] spans = new SpanEvent[spanEvents.size()];
+        int n = 0;
+        for (int i = 0; i < spans.length; i++) {
+            SpanEvent span = spanEvents.get(i);
+            if (span != null) {
+                spans[n++] = span;
+            }
+        }
+        spans = Arrays.copyOf(spans, n);
+        Arrays.sort(spans, new Comparator<SpanEvent>() {
+            @Override
+            public int compare(SpanEvent lhs, SpanEvent rhs) {
+                if (lhs.getStart() != rhs.getStart()) {
+                    return lhs.getStart() < rhs.getStart() ? -1 : 1;
+                }
+                return lhs.getEnd() < rhs.getEnd() ? -1 : (lhs.getEnd() == rhs.getEnd() ? 0 : 1);
+            }
+        });
+        return new SpanIndex(spans);
+    }
+
+    /**
+     * 是否没有任何事务
+     * @return
+     */
+    public boolean isEmpty() {
+        return spans.length == 0;
+    }
+
+    /**
+     * 事务总数
+     * @return
+     */
+    public int size() {
+        return spans.length;
+    }
+
+    /**
+     * 查询与日期区间相交的事务, 按开始日期升序追加到out中
+     * @param from 开始日期, yyyymmdd
+     * @param to   结束日期, yyyymmdd, 包含在内
+     * @param out  结果列表, 调用方负责清空, 可以复用以避免分配
+     */
+    public void query(int from, int to, List<SpanEvent> out) {
+        query(0, spans.length, from, to, out);
+    }
+
+    private void query(int lo, int hi, int from, int to, List<SpanEvent> out) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (maxEnds[mid] < from) {
+            /** 整棵子树都在查询区间之前结束 */
+            return;
+        }
+        query(lo, mid, from, to, out);
+        if (starts[mid] > to) {
+            /** 右子树开始得更晚, 不可能相交 */
+            return;
+        }
+        if (ends[mid] >= from) {
+            out.add(spans[mid]);
+        }
+        query(mid + 1, hi, from, to, out);
+    }
+
+    private int buildMaxEnds(int lo, int hi) {
+        if (lo >= hi) {
+            return Integer.MIN_VALUE;
+        }
+        int mid = (lo + hi) >>> 1;
+        int max = Math.max(ends[mid], Math.max(buildMaxEnds(lo, mid), buildMaxEnds(mid + 1, hi)));
+        maxEnds[mid] = max;
+        return max;
+    }
+}
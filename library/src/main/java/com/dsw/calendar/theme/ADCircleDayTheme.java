@@ -1,59 +1,57 @@
 package com.dsw.calendar.theme;
 
-import android.graphics.Color;
-
 /**
  * Created by Administrator on 2016/8/9.
  */
 public class ADCircleDayTheme implements IDayTheme {
     @Override
     public int colorSelectBG() {
-        return Color.parseColor("#38C0C3");
+        return 0xFF38C0C3;
     }
 
     @Override
     public int colorSelectDay() {
-        return Color.parseColor("#FFFFFF");
+        return 0xFFFFFFFF;
     }
 
     @Override
     public int colorToday() {
-        return Color.parseColor("#68CB00");
+        return 0xFF68CB00;
     }
 
     @Override
     public int colorMonthView() {
-        return Color.parseColor("#FFFFFF");
+        return 0xFFFFFFFF;
     }
 
     @Override
     public int colorWeekday() {
-        return Color.parseColor("#4F4F4F");
+        return 0xFF4F4F4F;
     }
 
     @Override
     public int colorWeekend() {
-        return Color.parseColor("#BEBEBE");
+        return 0xFFBEBEBE;
     }
 
     @Override
     public int colorDecor() {
-        return Color.parseColor("#4AB9AE");
+        return 0xFF4AB9AE;
     }
 
     @Override
     public int colorRest() {
-        return Color.parseColor("#2AC5C8");
+        return 0xFF2AC5C8;
     }
 
     @Override
     public int colorWork() {
-        return Color.parseColor("#C78D7D");
+        return 0xFFC78D7D;
     }
 
     @Override
     public int colorDesc() {
-        return Color.parseColor("#4F4F4F");
+        return 0xFF4F4F4F;
     }
 
     @Override
@@ -78,7 +76,7 @@ public class ADCircleDayTheme implements IDayTheme {
 
     @Override
     public int colorLine() {
-        return Color.parseColor("#CBCBCB");
+        return 0xFFCBCBCB;
     }
 
     @Override
@@ -1,59 +1,57 @@
 package com.dsw.calendar.theme;
 
-import android.graphics.Color;
-
 /**
  * Created by Administrator on 2016/7/30.
  */
 public class DefaultDayTheme implements IDayTheme {
     @Override
     public int colorSelectBG() {
-        return Color.parseColor("#13A4D3");
+        return 0xFF13A4D3;
     }
 
     @Override
     public int colorSelectDay() {
-        return Color.parseColor("#FFFFFF");
+        return 0xFFFFFFFF;
     }
 
     @Override
     public int colorToday() {
-        return Color.parseColor("#68CB00");
+        return 0xFF68CB00;
     }
 
     @Override
     public int colorMonthView() {
-        return Color.parseColor("#FFFFFF");
+        return 0xFFFFFFFF;
     }
 
     @Override
     public int colorWeekday() {
-        return Color.parseColor("#404040");
+        return 0xFF404040;
     }
 
     @Override
     public int colorWeekend() {
-        return Color.parseColor("#404040");
+        return 0xFF404040;
     }
 
     @Override
     public int colorDecor() {
-        return Color.parseColor("#68CB00");
+        return 0xFF68CB00;
     }
 
     @Override
     public int colorRest() {
-        return Color.parseColor("#68CB00");
+        return 0xFF68CB00;
     }
 
     @Override
     public int colorWork() {
-        return Color.parseColor("#FF9B12");
+        return 0xFFFF9B12;
     }
 
     @Override
     public int colorDesc() {
-        return Color.parseColor("#FF9B12");
+        return 0xFFFF9B12;
     }
 
     @Override
@@ -78,7 +76,7 @@ public class DefaultDayTheme implements IDayTheme {
 
     @Override
     public int colorLine() {
-        return Color.parseColor("#CBCBCB");
+        return 0xFFCBCBCB;
     }
 
     @Override
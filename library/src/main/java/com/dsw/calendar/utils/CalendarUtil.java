@@ -1,11 +1,8 @@
 package com.dsw.calendar.utils;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
-
-import android.text.TextUtils;
+import java.util.TimeZone;
 
 /**
  * 把公历时间处理成农历时间
@@ -23,40 +20,35 @@ public class CalendarUtil {
     private final static String WEEK_NUMBER[] = { "日", "一", "二", "三", "四", "五",
             "六" };
  
-    private final static long[] LUNAR_INFO = new long[] { 0x04bd8, 0x04ae0,
-            0x0a570, 0x054d5, 0x0d260, 0x0d950, 0x16554, 0x056a0, 0x09ad0,
-            0x055d2, 0x04ae0, 0x0a5b6, 0x0a4d0, 0x0d250, 0x1d255, 0x0b540,
-            0x0d6a0, 0x0ada2, 0x095b0, 0x14977, 0x04970, 0x0a4b0, 0x0b4b5,
-            0x06a50, 0x06d40, 0x1ab54, 0x02b60, 0x09570, 0x052f2, 0x04970,
-            0x06566, 0x0d4a0, 0x0ea50, 0x06e95, 0x05ad0, 0x02b60, 0x186e3,
-            0x092e0, 0x1c8d7, 0x0c950, 0x0d4a0, 0x1d8a6, 0x0b550, 0x056a0,
-            0x1a5b4, 0x025d0, 0x092d0, 0x0d2b2, 0x0a950, 0x0b557, 0x06ca0,
-            0x0b550, 0x15355, 0x04da0, 0x0a5d0, 0x14573, 0x052d0, 0x0a9a8,
-            0x0e950, 0x06aa0, 0x0aea6, 0x0ab50, 0x04b60, 0x0aae4, 0x0a570,
-            0x05260, 0x0f263, 0x0d950, 0x05b57, 0x056a0, 0x096d0, 0x04dd5,
-            0x04ad0, 0x0a4d0, 0x0d4d4, 0x0d250, 0x0d558, 0x0b540, 0x0b5a0,
-            0x195a6, 0x095b0, 0x049b0, 0x0a974, 0x0a4b0, 0x0b27a, 0x06a50,
-            0x06d40, 0x0af46, 0x0ab60, 0x09570, 0x04af5, 0x04970, 0x064b0,
-            0x074a3, 0x0ea50, 0x06b58, 0x055c0, 0x0ab60, 0x096d5, 0x092e0,
-            0x0c960, 0x0d954, 0x0d4a0, 0x0da50, 0x07552, 0x056a0, 0x0abb7,
-            0x025d0, 0x092d0, 0x0cab5, 0x0a950, 0x0b4a0, 0x0baa4, 0x0ad50,
-            0x055d9, 0x04ba0, 0x0a5b0, 0x15176, 0x052b0, 0x0a930, 0x07954,
-            0x06aa0, 0x0ad50, 0x05b52, 0x04b60, 0x0a6e6, 0x0a4e0, 0x0d260,
-            0x0ea65, 0x0d530, 0x05aa0, 0x076a3, 0x096d0, 0x04bd7, 0x04ad0,
-            0x0a4d0, 0x1d0b6, 0x0d250, 0x0d520, 0x0dd45, 0x0b5a0, 0x056d0,
-            0x055b2, 0x049b0, 0x0a577, 0x0a4b0, 0x0aa50, 0x1b255, 0x06d20,
-            0x0ada0 };
- 
-    /**
-     * 转换为2012年11月22日格式
-     */
-    private static SimpleDateFormat chineseDateFormat = new SimpleDateFormat(
-            "yyyy年MM月dd日");
-    /**
-     * 转换为2012-11-22格式
-     */
-    private static SimpleDateFormat simpleDateFormat = new SimpleDateFormat(
-            "yyyy-MM-dd");
+    /**
+     * 农历日期名称, 下标为日期号1~30
+     */
+    private final static String[] DAY_NAMES = new String[31];
+ 
+    /**
+     * 农历月份名称, 下标为月份1~12
+     */
+    private final static String[] MONTH_NAMES = new String[13];
+ 
+    /**
+     * 农历闰月名称, 下标为月份1~12
+     */
+    private final static String[] LEAP_MONTH_NAMES = new String[13];
+ 
+    static {
+        for (int day = 1; day <= 30; day++) {
+            DAY_NAMES[day] = buildChinaDayString(day).intern();
+        }
+        for (int month = 1; month <= 12; month++) {
+            MONTH_NAMES[month] = (CHINESE_NUMBER[month - 1] + "月").intern();
+            LEAP_MONTH_NAMES[month] = ("闰" + MONTH_NAMES[month]).intern();
+        }
+    }
+ 
+    /**
+     * 一天的毫秒数
+     */
+    private final static long MILLIS_PER_DAY = 86400000L;
  
     /**
      * 计算得到农历的年份
@@ -83,166 +75,138 @@ public class CalendarUtil {
     private Calendar mCurrenCalendar;
  
     /**
-     * 传回农历 year年的总天数
+     * 传回农历 y年的生肖
      *
-     * @param year
-     *            将要计算的年份
-     * @return 返回传入年份的总天数
-     */
-    private static int yearDays(int year) {
-        int i, sum = 348;
-        for (i = 0x8000; i > 0x8; i >>= 1) {
-            if ((LUNAR_INFO[year - 1900] & i) != 0)
-                sum += 1;
-        }
-        return (sum + leapDays(year));
+     * @return 传回农历 y年的生肖
+     */
+    public String animalsYear() {
+        return GanZhiUtil.getAnimal(GanZhiUtil.lunarYearPillar(mLuchYear));
     }
  
     /**
-     * 传回农历 year年闰月的天数
+     * 传回农历 y年的干支, 来自GanZhiUtil预先生成的字符串表
      *
-     * @param year
-     *            将要计算的年份
-     * @return 返回 农历 year年闰月的天数
-     */
-    private static int leapDays(int year) {
-        if (leapMonth(year) != 0) {
-            if ((LUNAR_INFO[year - 1900] & 0x10000) != 0)
-                return 30;
-            else
-                return 29;
-        } else
-            return 0;
+     * @return
+     */
+    public String cyclical() {
+        return GanZhiUtil.getName(GanZhiUtil.lunarYearPillar(mLuchYear));
     }
  
     /**
-     * 传回农历 year年闰哪个月 1-12 , 没闰传回 0
+     * 传出y年m月d日对应的农历.
+     * 由LunarEngine查表换算, 不解析日期字符串, 也不逐年累加天数
      *
-     * @param year
-     *            将要计算的年份
-     * @return 传回农历 year年闰哪个月 1-12 , 没闰传回 0
+     * @param cal
+     * @return
      */
-    private static int leapMonth(int year) {
-        return (int) (LUNAR_INFO[year - 1900] & 0xf);
+    public CalendarUtil(Calendar cal) {
+        mCurrenCalendar = cal;
+        int lunar = toLunar(cal.get(Calendar.YEAR), cal.get(Calendar.MONTH) + 1,
+                cal.get(Calendar.DAY_OF_MONTH));
+        mLuchYear = getLunarYear(lunar);
+        isLoap = isLeapMonth(lunar);
+        mLuchMonth = getLunarMonth(lunar);
+        mLuchDay = getLunarDay(lunar);
     }
  
     /**
-     * 传回农历 year年month月的总天数
+     * 计算公历日期对应的农历, 压缩为 年 << 10 | 闰月 << 9 | 月 << 5 | 日
+     * 静态方法, 不需要Calendar, 也不创建任何对象; 用getLunarYear等方法拆解
+     * 支持公历1900年1月31日至农历2100年年底
      *
-     * @param year
-     *            将要计算的年份
-     * @param month
-     *            将要计算的月份
-     * @return 传回农历 year年month月的总天数
+     * @param year  公历年
+     * @param month 公历月, 1~12
+     * @param day   公历日
+     * @return 压缩的农历日期
      */
-    private static int monthDays(int year, int month) {
-        if ((LUNAR_INFO[year - 1900] & (0x10000 >> month)) == 0)
-            return 29;
-        else
-            return 30;
+    public static int toLunar(int year, int month, int day) {
+        return LunarEngine.toLunar(year, month, day);
     }
  
     /**
-     * 传回农历 y年的生肖
+     * 计算公历某月的日历格子对应的农历, 一次线性遍历填满42个格子
+     * 格子从该月1号所在周的周日开始, 与MonthView的布局一致
      *
-     * @return 传回农历 y年的生肖
+     * @param year  公历年
+     * @param month 公历月, 1~12
+     * @param out   长度至少为42的数组, 超出支持范围的格子填0
+     * @return out
      */
-    public String animalsYear() {
-        final String[] Animals = new String[] { "鼠", "牛", "虎", "兔", "龙", "蛇",
-                "马", "羊", "猴", "鸡", "狗", "猪" };
-        return Animals[(mLuchYear - 4) % 12];
+    public static int[] toLunarMonth(int year, int month, int[] out) {
+        return LunarEngine.toLunarMonth(year, month, out);
     }
  
-    // ====== 传入 月日的offset 传回干支, 0=甲子
-    private static String cyclicalm(int num) {
-        final String[] Gan = new String[] { "甲", "乙", "丙", "丁", "戊", "己", "庚",
-                "辛", "壬", "癸" };
-        final String[] Zhi = new String[] { "子", "丑", "寅", "卯", "辰", "巳", "午",
-                "未", "申", "酉", "戌", "亥" };
+    /**
+     * @param lunar toLunar返回的压缩农历日期
+     * @return 农历年
+     */
+    public static int getLunarYear(int lunar) {
+        return LunarEngine.getYear(lunar);
+    }
  
-        return (Gan[num % 10] + Zhi[num % 12]);
+    /**
+     * @param lunar toLunar返回的压缩农历日期
+     * @return 农历月, 1~12
+     */
+    public static int getLunarMonth(int lunar) {
+        return LunarEngine.getMonth(lunar);
     }
  
-    // ====== 传入 offset 传回干支, 0=甲子
-    public String cyclical() {
-        int num = mLuchYear - 1900 + 36;
-        return (cyclicalm(num));
+    /**
+     * @param lunar toLunar返回的压缩农历日期
+     * @return 农历日, 1~30
+     */
+    public static int getLunarDay(int lunar) {
+        return LunarEngine.getDay(lunar);
+    }
+ 
+    /**
+     * @param lunar toLunar返回的压缩农历日期
+     * @return 是否为闰月
+     */
+    public static boolean isLeapMonth(int lunar) {
+        return LunarEngine.isLeap(lunar);
     }
  
     /**
-     * 传出y年m月d日对应的农历. yearCyl3:农历年与1864的相差数 ? monCyl4:从1900年1月31日以来,闰月数
-     * dayCyl5:与1900年1月31日相差的天数,再加40 ?
+     * 农历月份的名称, 如"腊月"、"闰四月", 来自预先生成的字符串表
      *
-     * @param cal
+     * @param lunar toLunar返回的压缩农历日期
      * @return
      */
-    public CalendarUtil(Calendar cal) {
-        mCurrenCalendar = cal;
-        int leapMonth = 0;
-        Date baseDate = null;
-        try {
-            baseDate = chineseDateFormat.parse("1900年1月31日");
-        } catch (ParseException e) {
-            e.printStackTrace(); // To change body of catch statement use
-            // Options | File Templates.
-        }
+    public static String getLunarMonthName(int lunar) {
+        return (isLeapMonth(lunar) ? LEAP_MONTH_NAMES : MONTH_NAMES)[getLunarMonth(lunar)];
+    }
  
-        // 求出和1900年1月31日相差的天数
-        int offset = (int) ((cal.getTime().getTime() - baseDate.getTime()) / 86400000L);
-        // 用offset减去每农历年的天数
-        // 计算当天是农历第几天
-        // i最终结果是农历的年份
-        // offset是当年的第几天
-        int iYear, daysOfYear = 0;
-        for (iYear = 1900; iYear < 2050 && offset > 0; iYear++) {
-            daysOfYear = yearDays(iYear);
-            offset -= daysOfYear;
-        }
-        if (offset < 0) {
-            offset += daysOfYear;
-            iYear--;
-        }
-        // 农历年份
-        mLuchYear = iYear;
- 
-        leapMonth = leapMonth(iYear); // 闰哪个月,1-12
-        isLoap = false;
- 
-        // 用当年的天数offset,逐个减去每月（农历）的天数，求出当天是本月的第几天
-        int iMonth, daysOfMonth = 0;
-        for (iMonth = 1; iMonth < 13 && offset > 0; iMonth++) {
-            // 闰月
-            if (leapMonth > 0 && iMonth == (leapMonth + 1) && !isLoap) {
-                --iMonth;
-                isLoap = true;
-                daysOfMonth = leapDays(mLuchYear);
-            } else
-                daysOfMonth = monthDays(mLuchYear, iMonth);
- 
-            offset -= daysOfMonth;
-            // 解除闰月
-            if (isLoap && iMonth == (leapMonth + 1))
-                isLoap = false;
-            if (!isLoap) {
-            }
-        }
-        // offset为0时，并且刚才计算的月份是闰月，要校正
-        if (offset == 0 && leapMonth > 0 && iMonth == leapMonth + 1) {
-            if (isLoap) {
-                isLoap = false;
-            } else {
-                isLoap = true;
-                --iMonth;
-            }
-        }
-        // offset小于0时，也要校正
-        if (offset < 0) {
-            offset += daysOfMonth;
-            --iMonth;
+    /**
+     * 农历日期的名称, 如"初一", 来自预先生成的字符串表
+     *
+     * @param lunar toLunar返回的压缩农历日期
+     * @return
+     */
+    public static String getLunarDayName(int lunar) {
+        return DAY_NAMES[getLunarDay(lunar)];
+    }
  
+    /**
+     * 日期格子中展示的农历标签: 传统节日, 初一显示月份, 其余显示日期
+     * 闰月不算节日, 初一显示为"闰x月"
+     * 所有结果都来自常量或预先生成的字符串表, 不创建任何对象
+     *
+     * @param lunar toLunar返回的压缩农历日期
+     * @return
+     */
+    public static String getLunarLabel(int lunar) {
+        int month = getLunarMonth(lunar);
+        int day = getLunarDay(lunar);
+        if (isLeapMonth(lunar)) {
+            return day == 1 ? LEAP_MONTH_NAMES[month] : DAY_NAMES[day];
         }
-        mLuchMonth = iMonth;
-        mLuchDay = offset + 1;
+        String festival = getChinaCalendarMsg(getLunarYear(lunar), month, day);
+        if (festival.length() != 0) {
+            return festival;
+        }
+        return day == 1 ? MONTH_NAMES[month] : DAY_NAMES[day];
     }
  
     /**
@@ -252,6 +216,13 @@ public class CalendarUtil {
      * @return
      */
     public static String getChinaDayString(int day) {
+        if (day >= 1 && day <= 30) {
+            return DAY_NAMES[day];
+        }
+        return buildChinaDayString(day);
+    }
+ 
+    private static String buildChinaDayString(int day) {
         String chineseTen[] = { "初", "十", "廿", "卅" };
         int n = day % 10 == 0 ? 9 : day % 10 - 1;
         if (day > 30)
@@ -264,34 +235,13 @@ public class CalendarUtil {
  
     /**
      * 用于显示农历的初几这种格式
+     * 按 农历节日 → 节气 → 公历节日 → 农历月份或日期 的顺序取第一个, 结果来自DayLabelCache
      *
      * @return 农历的日期
      */
     public String toString() {
-        String message = "";
-        // int n = mLuchDay % 10 == 0 ? 9 : mLuchDay % 10 - 1;
-        message = getChinaCalendarMsg(mLuchYear, mLuchMonth, mLuchDay);
-        if (TextUtils.isEmpty(message)) {
-            String solarMsg = new SolarTermsUtil(mCurrenCalendar).getSolartermsMsg();
-            // 判断当前日期是否为节气
-            if (!TextUtils.isEmpty(solarMsg)) {
-                message = solarMsg;
-            } else {
-                /**
-                 * 判断当前日期是否为公历节日
-                 */
-                String gremessage = new GregorianUtil(mCurrenCalendar).getGremessage();
-                if (!TextUtils.isEmpty(gremessage)) {
-                    message = gremessage;
-                } else if (mLuchDay == 1) {
-                    message = CHINESE_NUMBER[mLuchMonth - 1] + "月";
-                } else {
-                    message = getChinaDayString(mLuchDay);
-                }
- 
-            }
-        }
-        return message;
+        return DayLabelCache.getLabel(mCurrenCalendar.get(Calendar.YEAR), mCurrenCalendar.get(Calendar.MONTH) + 1,
+                mCurrenCalendar.get(Calendar.DAY_OF_MONTH));
     }
     
     /**
@@ -299,24 +249,11 @@ public class CalendarUtil {
      * @return  对应的假日
      */
     public String getHolidayMsg(){
-    	String message = "";
-        message = getChinaCalendarMsg(mLuchYear, mLuchMonth, mLuchDay);
-        if (TextUtils.isEmpty(message)) {
-            String solarMsg = new SolarTermsUtil(mCurrenCalendar).getSolartermsMsg();
-            // 判断当前日期是否为节气
-            if (!TextUtils.isEmpty(solarMsg)) {
-                message = solarMsg;
-            } else {
-                /**
-                 * 判断当前日期是否为公历节日
-                 */
-                String gremessage = new GregorianUtil(mCurrenCalendar).getGremessage();
-                if (!TextUtils.isEmpty(gremessage)) {
-                    message = gremessage;
-                }
-            }
-        }
-        return message;
+        String message = toString();
+        /** 不是节日、节气时标签为农历月份或日期 */
+        String lunarDay = mLuchDay == 1 ? (isLoap ? LEAP_MONTH_NAMES : MONTH_NAMES)[mLuchMonth]
+                : getChinaDayString(mLuchDay);
+        return message.equals(lunarDay) ? "" : message;
     }
  
     /**
@@ -325,8 +262,7 @@ public class CalendarUtil {
      * @return 农历的年月日格式
      */
     public String getDay() {
-        return (isLoap ? "闰" : "") + CHINESE_NUMBER[mLuchMonth - 1] + "月"
-                + getChinaDayString(mLuchDay);
+        return (isLoap ? LEAP_MONTH_NAMES : MONTH_NAMES)[mLuchMonth] + DAY_NAMES[mLuchDay];
     }
  
     /**
@@ -337,11 +273,37 @@ public class CalendarUtil {
      * @return 返回成转换好的 年月日格式
      */
     public static String getDay(Calendar calendar) {
-        return simpleDateFormat.format(calendar.getTime());
+        return appendDay(new StringBuilder(10), calendar.get(Calendar.YEAR),
+                calendar.get(Calendar.MONTH) + 1, calendar.get(Calendar.DAY_OF_MONTH)).toString();
     }
  
     /**
-     * 用于比对二个日期的大小
+     * 把日期按2012-11-22格式追加到sb中
+     * 不使用共享的SimpleDateFormat, 各线程使用自己的StringBuilder即可安全并发调用, 复用sb时不产生分配
+     *
+     * @param sb
+     *            目标
+     * @param year
+     * @param month
+     *            月份, 1~12
+     * @param day
+     * @return sb
+     */
+    public static StringBuilder appendDay(StringBuilder sb, int year, int month, int day) {
+        sb.append(year).append('-');
+        if (month < 10) {
+            sb.append('0');
+        }
+        sb.append(month).append('-');
+        if (day < 10) {
+            sb.append('0');
+        }
+        return sb.append(day);
+    }
+ 
+    /**
+     * 用于比对二个日期的大小, 只比较日期, 忽略时分秒
+     * 按默认时区换算成距1970年1月1日的天数后做整数比较, 线程安全
      *
      * @param compareDate
      *            将要比对的时间
@@ -350,8 +312,26 @@ public class CalendarUtil {
      * @return true 表示大于当前时间 false 表示小于当前时间
      */
     public static boolean compare(Date compareDate, Date currentDate) {
-        return chineseDateFormat.format(compareDate).compareTo(
-                chineseDateFormat.format(currentDate)) >= 0;
+        TimeZone timeZone = TimeZone.getDefault();
+        return toEpochDay(compareDate, timeZone) >= toEpochDay(currentDate, timeZone);
+    }
+ 
+    /**
+     * 计算时间在指定时区中所在日期距1970年1月1日的天数
+     *
+     * @param date
+     * @param timeZone
+     * @return
+     */
+    public static int toEpochDay(Date date, TimeZone timeZone) {
+        long millis = date.getTime();
+        millis += timeZone.getOffset(millis);
+        /** 向下取整, 1970年以前的时间也落在正确的日期 */
+        long days = millis / MILLIS_PER_DAY;
+        if (millis % MILLIS_PER_DAY < 0) {
+            days--;
+        }
+        return (int) days;
     }
  
     /**
@@ -371,8 +351,10 @@ public class CalendarUtil {
      * @return
      */
     public static String getCurrentDay(Calendar calendar) {
-        return getDay(calendar) + " 农历" + new CalendarUtil(calendar).getDay()
-                + " " + getWeek(calendar);
+        return appendDay(new StringBuilder(32), calendar.get(Calendar.YEAR),
+                calendar.get(Calendar.MONTH) + 1, calendar.get(Calendar.DAY_OF_MONTH))
+                .append(" 农历").append(new CalendarUtil(calendar).getDay())
+                .append(" 周").append(WEEK_NUMBER[calendar.get(Calendar.DAY_OF_WEEK) - 1]).toString();
     }
  
     /**
@@ -384,7 +366,7 @@ public class CalendarUtil {
      *            农历日
      * @return 中国传统节日
      */
-    private String getChinaCalendarMsg(int year, int month, int day) {
+    static String getChinaCalendarMsg(int year, int month, int day) {
         String message = "";
         if (((month) == 1) && day == 1) {
             message = "春节";
@@ -402,8 +384,7 @@ public class CalendarUtil {
             message = "腊八";
         } else {
             if (month == 12) {
-                if ((((monthDays(year, month) == 29) && day == 29))
-                        || ((((monthDays(year, month) == 30) && day == 30)))) {
+                if (day == LunarEngine.monthDays(year, month, false)) {
                     message = "除夕";
                 }
             }
@@ -56,6 +56,43 @@ public class DateUtils {
     	return calendar.get(Calendar.DAY_OF_WEEK);
     }
     
+    /**
+     * 计算公历日期距1970年1月1日的天数, 不创建任何对象
+     * @param year
+     * @param month
+     * 		月份，1~12
+     * @param day
+     * @return
+     */
+    public static int toEpochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+    
+    /**
+     * toEpochDay的逆运算, 不创建任何对象
+     * @param epochDay
+     * 		距1970年1月1日的天数
+     * @return
+     * 	压缩日期 yyyymmdd, 月份1~12
+     */
+    public static int fromEpochDay(int epochDay) {
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 10000 + month * 100 + day;
+    }
+    
     /**
      * 根据列明获取周
      * @param column
@@ -0,0 +1,119 @@
+package com.dsw.calendar.utils;
+
+import java.util.Arrays;
+
+/**
+ * 日期格子中展示的标签缓存, 进程内所有日历控件共用
+ *
+ * 标签按优先级取: 农历节日(闰月除外) → 节气 → 节日规则(默认为HolidayProvider.getDefault()的公历节日) → 农历月份(初一)或日期。
+ * 每个月份第一次用到时整月解析一次, 存为String[31], 下标为日期号减一;
+ * 缓存为按 年 * 12 + 月 直接映射的小数组, 相邻的CACHE_SIZE个月份互不冲突。
+ * 命中时只读取数组, 不装箱、不加锁, 可以在每个格子的绘制中调用; 未命中时才加锁解析。
+ * 所有标签都来自常量、预先生成的字符串表或节日规则, 解析时不创建SolarTermsUtil、GregorianUtil。
+ */
+public final class DayLabelCache {
+    /**
+     * 缓存槽位数, 2的幂, 足够覆盖多个控件同时绘制的上一月、选中月、下一月
+     */
+    private static final int CACHE_SIZE = 16;
+
+    /**
+     * 槽位中的元素创建后不再修改, 字段均为final, 不加锁读取时也能看到完整的内容
+     */
+    private static final MonthLabels[] CACHE = new MonthLabels[CACHE_SIZE];
+
+    private static final class MonthLabels {
+        final int key;
+        final String[] labels;
+
+        MonthLabels(int key, String[] labels) {
+            this.key = key;
+            this.labels = labels;
+        }
+    }
+
+    /**
+     * 解析时使用的整月农历, 只在持有锁时访问
+     */
+    private static final int[] LUNAR_GRID = new int[42];
+
+    private static HolidayProvider holidayProvider = HolidayProvider.getDefault();
+
+    private DayLabelCache() {
+    }
+
+    /**
+     * 替换节日规则, 例如加载地区节日; 同时清空缓存
+     *
+     * @param provider 节日规则, 为null时恢复默认
+     */
+    public static synchronized void setHolidayProvider(HolidayProvider provider) {
+        holidayProvider = provider == null ? HolidayProvider.getDefault() : provider;
+        Arrays.fill(CACHE, null);
+    }
+
+    /**
+     * 获取指定日期的标签
+     *
+     * @param year  公历年
+     * @param month 公历月, 1~12
+     * @param day   公历日
+     * @return 标签, 超出农历表范围且不是节日时返回""
+     */
+    public static String getLabel(int year, int month, int day) {
+        return getMonthLabels(year, month)[day - 1];
+    }
+
+    /**
+     * 获取指定月份每一天的标签
+     * 返回的数组被缓存共享, 调用方不能修改
+     *
+     * @param year  公历年
+     * @param month 公历月, 1~12
+     * @return 长度为31, 下标为日期号减一, 该月不存在的日期为null
+     */
+    public static String[] getMonthLabels(int year, int month) {
+        int key = year * 12 + month - 1;
+        MonthLabels entry = CACHE[key & (CACHE_SIZE - 1)];
+        if (entry != null && entry.key == key) {
+            return entry.labels;
+        }
+        return resolveAndCache(key, year, month);
+    }
+
+    private static synchronized String[] resolveAndCache(int key, int year, int month) {
+        int slot = key & (CACHE_SIZE - 1);
+        MonthLabels entry = CACHE[slot];
+        if (entry == null || entry.key != key) {
+            entry = new MonthLabels(key, resolve(year, month));
+            CACHE[slot] = entry;
+        }
+        return entry.labels;
+    }
+
+    private static String[] resolve(int year, int month) {
+        String[] labels = new String[31];
+        LunarEngine.toLunarMonth(year, month, LUNAR_GRID);
+        /** 格子从1号所在周的周日开始 */
+        int firstDay = DateUtils.toEpochDay(year, month, 1);
+        int offset = ((firstDay + 4) % 7 + 7) % 7 - 1;
+        int monthDays = SolarTermsUtil.daysInGregorianMonth(year, month);
+        for (int day = 1; day <= monthDays; day++) {
+            int lunar = LUNAR_GRID[day + offset];
+            /** 闰月没有传统节日, 如2028年闰五月初五不是端午节 */
+            String label = lunar == 0 || LunarEngine.isLeap(lunar) ? "" : CalendarUtil.getChinaCalendarMsg(
+                    LunarEngine.getYear(lunar), LunarEngine.getMonth(lunar), LunarEngine.getDay(lunar));
+            if (label.length() == 0) {
+                label = SolarTermsUtil.getSolarTermName(year, month, day);
+            }
+            if (label.length() == 0) {
+                label = holidayProvider.getHoliday(year, month, day);
+            }
+            if (label.length() == 0 && lunar != 0) {
+                label = CalendarUtil.getLunarLabel(lunar);
+            }
+            labels[day - 1] = label;
+        }
+        return labels;
+    }
+}
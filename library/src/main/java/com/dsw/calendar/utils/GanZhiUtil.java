@@ -0,0 +1,187 @@
+package com.dsw.calendar.utils;
+
+/**
+ * 干支(年柱、月柱、日柱)与生肖
+ *
+ * 干支用序号0~59表示, 0为甲子; 60个干支名称在类加载时生成并intern, 取名称不创建对象。
+ * 日柱按日期连续循环; 月柱、年柱按节气划分: 每月以节(立春、惊蛰……小寒)开始, 每年以立春开始,
+ * 依赖节气表, 超出节气表范围(1800~2300年)时返回-1。
+ * 另有按农历年(春节)划分的年柱, 与CalendarUtil.cyclical()一致。
+ */
+public final class GanZhiUtil {
+    private final static String[] GAN = { "甲", "乙", "丙", "丁", "戊", "己", "庚", "辛", "壬", "癸" };
+
+    private final static String[] ZHI = { "子", "丑", "寅", "卯", "辰", "巳", "午", "未", "申", "酉", "戌", "亥" };
+
+    private final static String[] ANIMALS = { "鼠", "牛", "虎", "兔", "龙", "蛇", "马", "羊", "猴", "鸡", "狗", "猪" };
+
+    /**
+     * 60个干支名称, 下标为干支序号
+     */
+    private final static String[] NAMES = new String[60];
+
+    static {
+        for (int i = 0; i < 60; i++) {
+            NAMES[i] = (GAN[i % 10] + ZHI[i % 12]).intern();
+        }
+    }
+
+    /**
+     * 1970年1月1日为辛巳日
+     */
+    private final static int EPOCH_DAY_PILLAR = 17;
+
+    /**
+     * 1984年为甲子年, 该年寅月为丙寅月
+     */
+    private final static int BASE_YEAR = 1984;
+    private final static int BASE_MONTH_PILLAR = 2;
+
+    private GanZhiUtil() {
+    }
+
+    /**
+     * 日柱
+     *
+     * @param epochDay 距1970年1月1日的天数
+     * @return 干支序号0~59
+     */
+    public static int dayPillar(int epochDay) {
+        return floorMod(epochDay + EPOCH_DAY_PILLAR, 60);
+    }
+
+    /**
+     * 月柱, 以节为界
+     *
+     * @param epochDay 距1970年1月1日的天数
+     * @return 干支序号0~59, 超出节气表范围时返回-1
+     */
+    public static int monthPillar(int epochDay) {
+        int months = solarMonths(DateUtils.fromEpochDay(epochDay));
+        return months == Integer.MIN_VALUE ? -1 : floorMod(months + BASE_MONTH_PILLAR, 60);
+    }
+
+    /**
+     * 年柱, 以立春为界
+     *
+     * @param epochDay 距1970年1月1日的天数
+     * @return 干支序号0~59, 超出节气表范围时返回-1
+     */
+    public static int yearPillar(int epochDay) {
+        int months = solarMonths(DateUtils.fromEpochDay(epochDay));
+        return months == Integer.MIN_VALUE ? -1 : floorMod(floorDiv(months, 12), 60);
+    }
+
+    /**
+     * 农历年的年柱, 以春节为界
+     *
+     * @param lunarYear 农历年
+     * @return 干支序号0~59
+     */
+    public static int lunarYearPillar(int lunarYear) {
+        return floorMod(lunarYear - BASE_YEAR, 60);
+    }
+
+    /**
+     * 计算公历某月每一天的年柱、月柱、日柱
+     * 该月的节只查一次, 之后逐日递增日柱, 适合给日历格子批量标注
+     *
+     * @param year  公历年
+     * @param month 公历月, 1~12
+     * @param out   长度至少为该月天数的数组, out[日期号 - 1] = 年柱 << 12 | 月柱 << 6 | 日柱,
+     *              超出节气表范围时年柱、月柱为63
+     * @return out
+     */
+    public static int[] toPillarMonth(int year, int month, int[] out) {
+        int monthDays = SolarTermsUtil.daysInGregorianMonth(year, month);
+        int dayPillar = dayPillar(DateUtils.toEpochDay(year, month, 1));
+        int term = SolarTermsUtil.sectionalTerm(year, month);
+        int before = 63 << 12 | 63 << 6;
+        int after = before;
+        if (term != 0) {
+            /** 节之前属于上一个节月 */
+            int months = (year - BASE_YEAR) * 12 + month - 2;
+            before = floorMod(floorDiv(months - 1, 12), 60) << 12 | floorMod(months - 1 + BASE_MONTH_PILLAR, 60) << 6;
+            after = floorMod(floorDiv(months, 12), 60) << 12 | floorMod(months + BASE_MONTH_PILLAR, 60) << 6;
+        }
+        for (int day = 1; day <= monthDays; day++) {
+            out[day - 1] = (term != 0 && day >= term ? after : before) | dayPillar;
+            if (++dayPillar == 60) {
+                dayPillar = 0;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * @param pillars toPillarMonth输出的一项
+     * @return 年柱, 63表示超出范围
+     */
+    public static int getYearPillar(int pillars) {
+        return pillars >>> 12;
+    }
+
+    /**
+     * @param pillars toPillarMonth输出的一项
+     * @return 月柱, 63表示超出范围
+     */
+    public static int getMonthPillar(int pillars) {
+        return (pillars >>> 6) & 63;
+    }
+
+    /**
+     * @param pillars toPillarMonth输出的一项
+     * @return 日柱
+     */
+    public static int getDayPillar(int pillars) {
+        return pillars & 63;
+    }
+
+    /**
+     * 干支名称, 如"甲子"
+     *
+     * @param pillar 干支序号0~59
+     * @return 预先生成的字符串, 序号无效时返回""
+     */
+    public static String getName(int pillar) {
+        return pillar >= 0 && pillar < 60 ? NAMES[pillar] : "";
+    }
+
+    /**
+     * 年柱对应的生肖
+     *
+     * @param pillar 干支序号0~59
+     * @return 生肖, 序号无效时返回""
+     */
+    public static String getAnimal(int pillar) {
+        return pillar >= 0 && pillar < 60 ? ANIMALS[pillar % 12] : "";
+    }
+
+    /**
+     * 压缩日期所在的节月距1984年寅月的月数
+     *
+     * @param date yyyymmdd
+     * @return 超出节气表范围时返回Integer.MIN_VALUE
+     */
+    private static int solarMonths(int date) {
+        int year = date / 10000;
+        int month = date / 100 % 100;
+        int term = SolarTermsUtil.sectionalTerm(year, month);
+        if (term == 0) {
+            return Integer.MIN_VALUE;
+        }
+        /** 2月的节为立春, 即寅月开始 */
+        int months = (year - BASE_YEAR) * 12 + month - 2;
+        return date % 100 >= term ? months : months - 1;
+    }
+
+    private static int floorMod(int x, int y) {
+        int mod = x % y;
+        return mod < 0 ? mod + y : mod;
+    }
+
+    private static int floorDiv(int x, int y) {
+        int div = x / y;
+        return (x % y != 0 && (x < 0) != (y < 0)) ? div - 1 : div;
+    }
+}
@@ -3,57 +3,31 @@ package com.dsw.calendar.utils;
 import java.util.Calendar;
 /**
  * 对公历日期的处理类
+ * 节日来自HolidayProvider.getDefault()编译的规则表
  */
 public class GregorianUtil {
-	 private final static String[][] GRE_FESTVIAL = {
-         // 一月
-         { "元旦", "", "", "", "", "", "", "", "", "", "", "", "", "", "", "",
-                 "", "", "", "", "", "", "", "", "", "", "", "", "", "", "" },
-         // 二月
-         { "", "", "", "", "", "", "", "", "", "", "", "", "", "情人节", "", "",
-                 "", "", "", "", "", "", "", "", "", "", "", "", "", "" },
-         // 三月
-         { "", "", "", "", "", "", "", "妇女节", "", "", "", "植树节", "", "", "",
-                 "", "", "", "", "", "", "", "", "", "", "", "", "", "", "",
-                 "" },
-         // 四月
-         { "愚人节", "", "", "", "", "", "", "", "", "", "", "", "", "", "", "",
-                 "", "", "", "", "", "", "", "", "", "", "", "", "", "", "" },
-         // 五月
-         { "劳动节", "", "", "青年节", "", "", "", "", "", "", "", "", "", "", "",
-                 "", "", "", "", "", "", "", "", "", "", "", "", "", "", "",
-                 "" },
-         // 六月
-         { "儿童节", "", "", "", "", "", "", "", "", "", "", "", "", "", "", "",
-                 "", "", "", "", "", "", "", "", "", "", "", "", "", "", "" },
-         // 七月
-         { "建党节", "", "", "", "", "", "", "", "", "", "", "", "", "", "", "",
-                 "", "", "", "", "", "", "", "", "", "", "", "", "", "", "" },
-         // 八月
-         { "建军节", "", "", "", "", "", "", "", "", "", "", "", "", "", "", "",
-                 "", "", "", "", "", "", "", "", "", "", "", "", "", "", "" },
-         // 九月
-         { "", "", "", "", "", "", "", "", "", "教师节", "", "", "", "", "", "",
-                 "", "", "", "", "", "", "", "", "", "", "", "", "", "", "" },
-         // 十月
-         { "国庆节", "", "", "", "", "", "", "", "", "", "", "", "", "", "", "",
-                 "", "", "", "", "", "", "", "", "", "", "", "", "", "", "" },
-         // 十一月
-         { "", "", "", "", "", "", "", "", "", "", "光棍节", "", "", "", "", "",
-                 "", "", "", "", "", "", "", "", "", "", "", "", "", "", "" },
-         // 十二月
-         { "艾滋病", "", "", "", "", "", "", "", "", "", "", "", "", "", "",
-                 "", "", "", "", "", "", "", "", "", "圣诞节", "", "", "", "",
-                 "", "" }, };
+	 private int mYear;
 	 private int mMonth;
 	 private int mDay;
 	
 	 public GregorianUtil(Calendar calendar) {
+	     mYear = calendar.get(Calendar.YEAR);
 	     mMonth = calendar.get(Calendar.MONTH);
 	     mDay = calendar.get(Calendar.DATE);
 	 }
 	
 	 public String getGremessage() {
-	     return GRE_FESTVIAL[mMonth][mDay - 1];
+	     return getGremessage(mYear, mMonth + 1, mDay);
+	 }
+
+	 /**
+	  * 公历节日, 不需要创建GregorianUtil
+	  * @param year  年
+	  * @param month 月, 1~12
+	  * @param day   日
+	  * @return 节日名称, 没有时返回""
+	  */
+	 public static String getGremessage(int year, int month, int day) {
+	     return HolidayProvider.getDefault().getHoliday(year, month, day);
 	 }
 }
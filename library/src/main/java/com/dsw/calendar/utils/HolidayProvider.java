@@ -0,0 +1,370 @@
+package com.dsw.calendar.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 节日规则集
+ *
+ * 支持四种规则: 公历固定日期、某月第几个星期几、农历日期、节气前后若干天。
+ * 规则按公历年编译成按日期排序的稀疏表(距1970年1月1日的天数 + 名称编号), 查询时二分查找;
+ * 最近用到的几年的编译结果缓存在一个小的LRU中。同一天有多个节日时取先加入的规则。
+ *
+ * 规则可以用Builder在代码中构建, 也可以用load从文本读取, 每行一条规则:
+ * <pre>
+ * # 注释
+ * fixed   月 日 名称                  公历固定日期, 如 fixed 10 1 国庆节
+ * weekday 月 第几个 星期 名称          某月第几个星期几, 负数为倒数第几个, 星期0为周日, 如 weekday 5 2 0 母亲节
+ * lunar   农历月 农历日 名称           闰月为负数, 日为-1表示该月最后一天, 如 lunar 12 -1 除夕
+ * term    节气序号 偏移天数 名称       节气序号见SolarTermsUtil.solarTermOf, 如 term 6 -1 寒食节
+ * </pre>
+ */
+public class HolidayProvider {
+    public static final int FIXED = 0;
+    public static final int NTH_WEEKDAY = 1;
+    public static final int LUNAR = 2;
+    public static final int SOLAR_TERM = 3;
+
+    /**
+     * 缓存的年份数
+     */
+    private static final int CACHE_SIZE = 4;
+
+    /**
+     * 内置的公历节日
+     */
+    private static final String DEFAULT_RULES =
+            "fixed 1 1 元旦\n"
+            + "fixed 2 14 情人节\n"
+            + "fixed 3 8 妇女节\n"
+            + "fixed 3 12 植树节\n"
+            + "fixed 4 1 愚人节\n"
+            + "fixed 5 1 劳动节\n"
+            + "fixed 5 4 青年节\n"
+            + "weekday 5 2 0 母亲节\n"
+            + "fixed 6 1 儿童节\n"
+            + "weekday 6 3 0 父亲节\n"
+            + "fixed 7 1 建党节\n"
+            + "fixed 8 1 建军节\n"
+            + "fixed 9 10 教师节\n"
+            + "fixed 10 1 国庆节\n"
+            + "fixed 11 11 光棍节\n"
+            + "fixed 12 1 艾滋病\n"
+            + "fixed 12 25 圣诞节\n";
+
+    private static HolidayProvider defaultProvider;
+
+    /**
+     * 每条规则4个int: 类型, 参数1, 参数2, 参数3
+     */
+    private final int[] rules;
+    /**
+     * 名称, 下标为规则编号
+     */
+    private final String[] labels;
+    private final LinkedHashMap<Integer, YearTable> years =
+            new LinkedHashMap<Integer, YearTable>(CACHE_SIZE * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, YearTable> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            };
+
+    /**
+     * 某一年编译后的节日表
+     */
+    private static final class YearTable {
+        /** 距1970年1月1日的天数, 升序 */
+        final int[] days;
+        /** 对应的规则编号 */
+        final int[] labelIds;
+
+        YearTable(int[] days, int[] labelIds) {
+            this.days = days;
+            this.labelIds = labelIds;
+        }
+    }
+
+    private HolidayProvider(int[] rules, String[] labels) {
+        this.rules = rules;
+        this.labels = labels;
+    }
+
+    /**
+     * 内置的公历节日, 包括母亲节、父亲节等浮动节日
+     * @return
+     */
+    public static synchronized HolidayProvider getDefault() {
+        if (defaultProvider == null) {
+            try {
+                defaultProvider = load(new StringReader(DEFAULT_RULES));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return defaultProvider;
+    }
+
+    /**
+     * 从文本读取规则, 格式见类注释
+     * @param reader 调用方负责关闭
+     * @return
+     * @throws IOException
+     * @throws IllegalArgumentException 某行格式不正确
+     */
+    public static HolidayProvider load(Reader reader) throws IOException {
+        Builder builder = new Builder();
+        BufferedReader in = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.length() == 0 || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            try {
+                if ("fixed".equals(fields[0]) && fields.length >= 4) {
+                    builder.addFixed(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]), join(fields, 3));
+                } else if ("weekday".equals(fields[0]) && fields.length >= 5) {
+                    builder.addNthWeekday(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+                            Integer.parseInt(fields[3]), join(fields, 4));
+                } else if ("lunar".equals(fields[0]) && fields.length >= 4) {
+                    builder.addLunar(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]), join(fields, 3));
+                } else if ("term".equals(fields[0]) && fields.length >= 4) {
+                    builder.addSolarTerm(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]), join(fields, 3));
+                } else {
+                    throw new IllegalArgumentException("unknown rule");
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("line " + lineNumber + ": " + line, e);
+            }
+        }
+        return builder.build();
+    }
+
+    private static String join(String[] fields, int start) {
+        StringBuilder sb = new StringBuilder(fields[start]);
+        for (int i = start + 1; i < fields.length; i++) {
+            sb.append(' ').append(fields[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 获取指定日期的节日
+     * @param year  公历年
+     * @param month 公历月, 1~12
+     * @param day   公历日
+     * @return 节日名称, 没有时返回""
+     */
+    public String getHoliday(int year, int month, int day) {
+        YearTable table = getYearTable(year);
+        int index = Arrays.binarySearch(table.days, DateUtils.toEpochDay(year, month, day));
+        if (index < 0) {
+            return "";
+        }
+        /** 同一天有多个节日时取第一个 */
+        while (index > 0 && table.days[index - 1] == table.days[index]) {
+            index--;
+        }
+        return labels[table.labelIds[index]];
+    }
+
+    private synchronized YearTable getYearTable(int year) {
+        YearTable table = years.get(year);
+        if (table == null) {
+            table = compile(year);
+            years.put(year, table);
+        }
+        return table;
+    }
+
+    /**
+     * 把全部规则展开成某一年的节日表
+     */
+    private YearTable compile(int year) {
+        int first = DateUtils.toEpochDay(year, 1, 1);
+        int last = DateUtils.toEpochDay(year + 1, 1, 1) - 1;
+        /** 高32位为日期, 低32位为规则编号, 排序后同一天按规则顺序排列; 每条规则一年最多命中3次 */
+        long[] entries = new long[labels.length * 3];
+        int count = 0;
+        for (int id = 0; id < labels.length; id++) {
+            int a = rules[id * 4 + 1];
+            int b = rules[id * 4 + 2];
+            int c = rules[id * 4 + 3];
+            int date;
+            switch (rules[id * 4]) {
+                case FIXED:
+                    if (b <= SolarTermsUtil.daysInGregorianMonth(year, a)) {
+                        entries[count++] = entry(DateUtils.toEpochDay(year, a, b), id);
+                    }
+                    break;
+                case NTH_WEEKDAY:
+                    date = nthWeekday(year, a, b, c);
+                    if (date != Integer.MIN_VALUE) {
+                        entries[count++] = entry(date, id);
+                    }
+                    break;
+                case LUNAR:
+                    /** 公历年内可能包含两个农历年的同一日期 */
+                    for (int lunarYear = year - 1; lunarYear <= year; lunarYear++) {
+                        date = LunarEngine.toEpochDay(lunarYear, Math.abs(a), a < 0, b);
+                        if (date >= first && date <= last) {
+                            entries[count++] = entry(date, id);
+                        }
+                    }
+                    break;
+                default:
+                    /** 偏移后可能跨年, 相邻年份的节气也要检查 */
+                    for (int termYear = year - 1; termYear <= year + 1; termYear++) {
+                        int month = a / 2 + 1;
+                        int termDay = a % 2 == 0 ? SolarTermsUtil.sectionalTerm(termYear, month)
+                                : SolarTermsUtil.principleTerm(termYear, month);
+                        if (termDay == 0) {
+                            continue;
+                        }
+                        date = DateUtils.toEpochDay(termYear, month, termDay) + b;
+                        if (date >= first && date <= last) {
+                            entries[count++] = entry(date, id);
+                        }
+                    }
+                    break;
+            }
+        }
+        Arrays.sort(entries, 0, count);
+        int[] days = new int[count];
+        int[] labelIds = new int[count];
+        for (int i = 0; i < count; i++) {
+            days[i] = (int) (entries[i] >> 32);
+            labelIds[i] = (int) entries[i];
+        }
+        return new YearTable(days, labelIds);
+    }
+
+    private static long entry(int epochDay, int id) {
+        return (long) epochDay << 32 | id;
+    }
+
+    /**
+     * 某月第n个星期几, n为负数时为倒数第-n个
+     * @return 距1970年1月1日的天数, 没有这一天时返回Integer.MIN_VALUE
+     */
+    private static int nthWeekday(int year, int month, int n, int weekday) {
+        int monthDays = SolarTermsUtil.daysInGregorianMonth(year, month);
+        int first = DateUtils.toEpochDay(year, month, 1);
+        int day;
+        if (n > 0) {
+            /** 1970年1月1日为周四 */
+            int firstWeekday = ((first + 4) % 7 + 7) % 7;
+            day = 1 + ((weekday - firstWeekday) % 7 + 7) % 7 + (n - 1) * 7;
+        } else {
+            int lastWeekday = ((first + monthDays - 1 + 4) % 7 + 7) % 7;
+            day = monthDays - ((lastWeekday - weekday) % 7 + 7) % 7 + (n + 1) * 7;
+        }
+        return day >= 1 && day <= monthDays ? first + day - 1 : Integer.MIN_VALUE;
+    }
+
+    /**
+     * 构建节日规则集, 规则按加入顺序决定同一天的优先级
+     */
+    public static class Builder {
+        private final List<String> labels = new ArrayList<String>();
+        private int[] rules = new int[64];
+
+        /**
+         * 公历固定日期
+         * @param month 月, 1~12
+         * @param day   日
+         * @param label 名称
+         * @return
+         */
+        public Builder addFixed(int month, int day, String label) {
+            checkMonth(month);
+            if (day < 1 || day > 31) {
+                throw new IllegalArgumentException("day must be 1~31");
+            }
+            return add(FIXED, month, day, 0, label);
+        }
+
+        /**
+         * 某月第几个星期几
+         * @param month   月, 1~12
+         * @param n       第几个, 1~5, 负数为倒数第几个
+         * @param weekday 星期, 0为周日, 6为周六
+         * @param label   名称
+         * @return
+         */
+        public Builder addNthWeekday(int month, int n, int weekday, String label) {
+            checkMonth(month);
+            if (n == 0 || n < -5 || n > 5 || weekday < 0 || weekday > 6) {
+                throw new IllegalArgumentException("n must be 1~5 or -1~-5, weekday must be 0~6");
+            }
+            return add(NTH_WEEKDAY, month, n, weekday, label);
+        }
+
+        /**
+         * 农历日期
+         * @param month 农历月, 1~12, 闰月为负数
+         * @param day   农历日, 1~30, -1表示该月最后一天
+         * @param label 名称
+         * @return
+         */
+        public Builder addLunar(int month, int day, String label) {
+            checkMonth(Math.abs(month));
+            if (day != -1 && (day < 1 || day > 30)) {
+                throw new IllegalArgumentException("day must be 1~30 or -1");
+            }
+            return add(LUNAR, month, day, 0, label);
+        }
+
+        /**
+         * 节气前后若干天
+         * @param term   节气序号0~23, 见SolarTermsUtil.solarTermOf
+         * @param offset 偏移天数, 负数为节气之前
+         * @param label  名称
+         * @return
+         */
+        public Builder addSolarTerm(int term, int offset, String label) {
+            if (term < 0 || term > 23) {
+                throw new IllegalArgumentException("term must be 0~23");
+            }
+            return add(SOLAR_TERM, term, offset, 0, label);
+        }
+
+        public HolidayProvider build() {
+            int count = labels.size();
+            return new HolidayProvider(Arrays.copyOf(rules, count * 4), labels.toArray(new String[count]));
+        }
+
+        private Builder add(int type, int a, int b, int c, String label) {
+            if (label == null || label.length() == 0) {
+                throw new IllegalArgumentException("label must not be empty");
+            }
+            int offset = labels.size() * 4;
+            if (offset + 4 > rules.length) {
+                rules = Arrays.copyOf(rules, rules.length * 2);
+            }
+            rules[offset] = type;
+            rules[offset + 1] = a;
+            rules[offset + 2] = b;
+            rules[offset + 3] = c;
+            labels.add(label.intern());
+            return this;
+        }
+
+        private static void checkMonth(int month) {
+            if (month < 1 || month > 12) {
+                throw new IllegalArgumentException("month must be 1~12");
+            }
+        }
+    }
+}
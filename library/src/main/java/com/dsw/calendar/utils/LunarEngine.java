@@ -0,0 +1,312 @@
+package com.dsw.calendar.utils;
+
+/**
+ * 农历换算引擎, CalendarUtil和SolarTermsUtil共用的唯一一份农历数据
+ *
+ * 每个农历年压缩为一个int: 低13位按顺序(含闰月)表示各月大小, 1为大月30天, 0为小月29天;
+ * 第13~16位为闰月月份, 0表示没有闰月。
+ * 类加载时由此生成每年正月初一、每月初一的偏移表, 之后的换算都是查表, 不逐年、逐月累加天数。
+ * 支持农历1900年正月初一(公历1900年1月31日)至农历2100年年底。
+ */
+public final class LunarEngine {
+    /**
+     * 支持的第一个农历年
+     */
+    public final static int MIN_YEAR = 1900;
+
+    /**
+     * 支持的最后一个农历年
+     */
+    public final static int MAX_YEAR = 2100;
+
+    /**
+     * 农历1900~2100年的月份大小及闰月, 每行8年, 注释为该行第一年
+     */
+    private final static int[] LUNAR_YEARS = {
+            0x116d2, 0x00752, 0x00ea5, 0x0b64a, 0x0064b, 0x00a9b, 0x09556, 0x0056a,  // 1900
+            0x00b59, 0x05752, 0x00752, 0x0db25, 0x00b25, 0x00a4b, 0x0b4ab, 0x002ad,  // 1908
+            0x0056b, 0x04b69, 0x00da9, 0x0fd92, 0x00e92, 0x00d25, 0x0ba4d, 0x00a56,  // 1916
+            0x002b6, 0x095b5, 0x006d4, 0x00ea9, 0x05e92, 0x00e92, 0x0cd26, 0x0052b,  // 1924
+            0x00a57, 0x0b2b6, 0x00b5a, 0x006d4, 0x06ec9, 0x00749, 0x0f693, 0x00a93,  // 1932
+            0x0052b, 0x0ca5b, 0x00aad, 0x0056a, 0x09b55, 0x00ba4, 0x00b49, 0x05a93,  // 1940
+            0x00a95, 0x0f52d, 0x00536, 0x00aad, 0x0b5aa, 0x005b2, 0x00da5, 0x07d4a,  // 1948
+            0x00d4a, 0x10a95, 0x00a97, 0x00556, 0x0cab5, 0x00ad5, 0x006d2, 0x08ea5,  // 1956
+            0x00ea5, 0x0064a, 0x06c97, 0x00a9b, 0x0f55a, 0x0056a, 0x00b69, 0x0b752,  // 1964
+            0x00b52, 0x00b25, 0x0964b, 0x00a4b, 0x114ab, 0x002ad, 0x0056d, 0x0cb69,  // 1972
+            0x00da9, 0x00d92, 0x09d25, 0x00d25, 0x15a4d, 0x00a56, 0x002b6, 0x0c5b5,  // 1980
+            0x006d5, 0x00ea9, 0x0be92, 0x00e92, 0x00d26, 0x06a56, 0x00a57, 0x114d6,  // 1988
+            0x0035a, 0x006d5, 0x0b6c9, 0x00749, 0x00693, 0x0952b, 0x0052b, 0x00a5b,  // 1996
+            0x0555a, 0x0056a, 0x0fb55, 0x00ba4, 0x00b49, 0x0ba93, 0x00a95, 0x0052d,  // 2004
+            0x08aad, 0x00ab5, 0x135aa, 0x005d2, 0x00da5, 0x0dd4a, 0x00d4a, 0x00c95,  // 2012
+            0x0952e, 0x00556, 0x00ab5, 0x055b2, 0x006d2, 0x0cea5, 0x00725, 0x0064b,  // 2020
+            0x0ac97, 0x00cab, 0x0055a, 0x06ad6, 0x00b69, 0x17752, 0x00b52, 0x00b25,  // 2028
+            0x0da4b, 0x00a4b, 0x004ab, 0x0a55b, 0x005ad, 0x00b6a, 0x05b52, 0x00d92,  // 2036
+            0x0fd25, 0x00d25, 0x00a55, 0x0b4ad, 0x004b6, 0x005b5, 0x06daa, 0x00ec9,  // 2044
+            0x11e92, 0x00e92, 0x00d26, 0x0ca56, 0x00a57, 0x004d6, 0x086d5, 0x00755,  // 2052
+            0x00749, 0x06e93, 0x00693, 0x0f52b, 0x0052b, 0x00a5b, 0x0b55a, 0x0056a,  // 2060
+            0x00b65, 0x0974a, 0x00b4a, 0x11a95, 0x00a95, 0x0052d, 0x0caad, 0x00ab5,  // 2068
+            0x005aa, 0x08ba5, 0x00da5, 0x00d4a, 0x07c95, 0x00c96, 0x0f94e, 0x00556,  // 2076
+            0x00ab5, 0x0b5b2, 0x006d2, 0x00ea5, 0x08e4a, 0x0064b, 0x10c97, 0x004ab,  // 2084
+            0x0055b, 0x0cada, 0x00b6a, 0x00752, 0x09725, 0x00b25, 0x00a8b, 0x0549b,  // 2092
+            0x00cab  // 2100
+    };
+
+    /**
+     * 每个农历年正月初一距1970年1月1日的天数, 最后多一项为下一年的正月初一
+     */
+    private final static int[] YEAR_START = new int[LUNAR_YEARS.length + 1];
+
+    /**
+     * 每个农历年各月(按顺序含闰月)初一距正月初一的天数, 每年14项,
+     * 第13个月之后的各项等于全年天数, 作为查找的哨兵
+     */
+    private final static short[] MONTH_START = new short[LUNAR_YEARS.length * 14];
+
+    static {
+        /** 农历1900年正月初一为公历1900年1月31日 */
+        YEAR_START[0] = DateUtils.toEpochDay(1900, 1, 31);
+        for (int i = 0; i < LUNAR_YEARS.length; i++) {
+            int months = (LUNAR_YEARS[i] >>> 13) == 0 ? 12 : 13;
+            int offset = 0;
+            int k = 0;
+            for (; k < months; k++) {
+                MONTH_START[i * 14 + k] = (short) offset;
+                offset += (LUNAR_YEARS[i] & (1 << k)) != 0 ? 30 : 29;
+            }
+            for (; k < 14; k++) {
+                MONTH_START[i * 14 + k] = (short) offset;
+            }
+            YEAR_START[i + 1] = YEAR_START[i] + offset;
+        }
+    }
+
+    private LunarEngine() {
+    }
+
+    /**
+     * 计算公历日期对应的农历, 压缩为 年 << 10 | 闰月 << 9 | 月 << 5 | 日
+     *
+     * @param year  公历年
+     * @param month 公历月, 1~12
+     * @param day   公历日
+     * @return 压缩的农历日期
+     * @throws IllegalArgumentException 超出支持范围
+     */
+    public static int toLunar(int year, int month, int day) {
+        int epochDay = DateUtils.toEpochDay(year, month, day);
+        if (!isSupported(epochDay)) {
+            throw new IllegalArgumentException("lunar date out of range: " + year + "-" + month + "-" + day);
+        }
+        /** 农历年份只可能是公历年份或前一年 */
+        int index = Math.min(year - MIN_YEAR, LUNAR_YEARS.length - 1);
+        if (epochDay < YEAR_START[index]) {
+            index--;
+        }
+        return toLunar(index, epochDay);
+    }
+
+    /**
+     * 计算距1970年1月1日epochDay天的日期对应的农历
+     *
+     * @param epochDay 距1970年1月1日的天数
+     * @return 压缩的农历日期
+     * @throws IllegalArgumentException 超出支持范围
+     */
+    public static int toLunarOfEpochDay(int epochDay) {
+        if (!isSupported(epochDay)) {
+            throw new IllegalArgumentException("lunar date out of range: " + epochDay);
+        }
+        /** 按平均年长估算农历年份, 最多再调整一两次 */
+        int index = Math.min((int) ((epochDay - YEAR_START[0]) * 100L / 36525), LUNAR_YEARS.length - 1);
+        while (YEAR_START[index] > epochDay) {
+            index--;
+        }
+        while (YEAR_START[index + 1] <= epochDay) {
+            index++;
+        }
+        return toLunar(index, epochDay);
+    }
+
+    private static int toLunar(int index, int epochDay) {
+        int dayOfYear = epochDay - YEAR_START[index];
+        int base = index * 14;
+        int k = 1;
+        while (MONTH_START[base + k] <= dayOfYear) {
+            k++;
+        }
+        k--;
+        return pack(index, k, dayOfYear - MONTH_START[base + k] + 1);
+    }
+
+    /**
+     * 农历日期对应的公历日期, toLunar的逆运算
+     *
+     * @param year  农历年
+     * @param month 农历月, 1~12
+     * @param leap  是否为闰月
+     * @param day   农历日, -1表示该月最后一天
+     * @return 距1970年1月1日的天数, 超出支持范围或没有这一天时返回Integer.MIN_VALUE
+     */
+    public static int toEpochDay(int year, int month, boolean leap, int day) {
+        if (year < MIN_YEAR || year > MAX_YEAR || month < 1 || month > 12) {
+            return Integer.MIN_VALUE;
+        }
+        int index = year - MIN_YEAR;
+        int leapMonth = LUNAR_YEARS[index] >>> 13;
+        if (leap && leapMonth != month) {
+            return Integer.MIN_VALUE;
+        }
+        int k = leapMonth != 0 && (month > leapMonth || leap) ? month : month - 1;
+        int length = MONTH_START[index * 14 + k + 1] - MONTH_START[index * 14 + k];
+        if (day == -1) {
+            day = length;
+        }
+        if (day < 1 || day > length) {
+            return Integer.MIN_VALUE;
+        }
+        return YEAR_START[index] + MONTH_START[index * 14 + k] + day - 1;
+    }
+
+    /**
+     * 计算公历某月的日历格子对应的农历, 一次线性遍历填满42个格子
+     * 格子从该月1号所在周的周日开始, 与MonthView的布局一致; 只换算第一个格子,
+     * 之后逐日递增农历日期, 按月长表进位到下一个月(含闰月)、下一年
+     *
+     * @param year  公历年
+     * @param month 公历月, 1~12
+     * @param out   长度至少为42的数组, 超出支持范围的格子填0
+     * @return out
+     */
+    public static int[] toLunarMonth(int year, int month, int[] out) {
+        int firstDay = DateUtils.toEpochDay(year, month, 1);
+        /** 1970年1月1日为周四, 换算成以周日为0的星期 */
+        int dayOfWeek = ((firstDay + 4) % 7 + 7) % 7;
+        int epochDay = firstDay - dayOfWeek;
+        int index = -1, k = 0, dayOfMonth = 0, monthLength = 0;
+        for (int cell = 0; cell < 42; cell++, epochDay++) {
+            if (!isSupported(epochDay)) {
+                out[cell] = 0;
+                index = -1;
+                continue;
+            }
+            if (index < 0) {
+                /** 第一个在支持范围内的格子, 完整换算一次 */
+                int lunar = toLunarOfEpochDay(epochDay);
+                index = getYear(lunar) - MIN_YEAR;
+                int dayOfYear = epochDay - YEAR_START[index];
+                k = 0;
+                while (MONTH_START[index * 14 + k + 1] <= dayOfYear) {
+                    k++;
+                }
+                dayOfMonth = getDay(lunar);
+                monthLength = MONTH_START[index * 14 + k + 1] - MONTH_START[index * 14 + k];
+            } else if (++dayOfMonth > monthLength) {
+                dayOfMonth = 1;
+                k++;
+                if (epochDay == YEAR_START[index + 1]) {
+                    index++;
+                    k = 0;
+                }
+                monthLength = MONTH_START[index * 14 + k + 1] - MONTH_START[index * 14 + k];
+            }
+            out[cell] = pack(index, k, dayOfMonth);
+        }
+        return out;
+    }
+
+    /**
+     * 是否在支持的范围内
+     *
+     * @param epochDay 距1970年1月1日的天数
+     * @return
+     */
+    public static boolean isSupported(int epochDay) {
+        return epochDay >= YEAR_START[0] && epochDay < YEAR_START[LUNAR_YEARS.length];
+    }
+
+    /**
+     * 农历year年闰哪个月
+     *
+     * @param year 农历年
+     * @return 闰月月份1~12, 没有闰月返回0
+     */
+    public static int leapMonth(int year) {
+        return LUNAR_YEARS[year - MIN_YEAR] >>> 13;
+    }
+
+    /**
+     * 农历year年month月的天数
+     *
+     * @param year  农历年
+     * @param month 农历月, 1~12
+     * @param leap  是否为闰月
+     * @return 29或30, 该年没有这个闰月时返回0
+     */
+    public static int monthDays(int year, int month, boolean leap) {
+        int info = LUNAR_YEARS[year - MIN_YEAR];
+        int leapMonth = info >>> 13;
+        if (leap && leapMonth != month) {
+            return 0;
+        }
+        /** 闰月及其之后的月份在表中后移一位 */
+        int k = leapMonth != 0 && (month > leapMonth || leap) ? month : month - 1;
+        return (info & (1 << k)) != 0 ? 30 : 29;
+    }
+
+    /**
+     * 农历year年的总天数
+     *
+     * @param year 农历年
+     * @return
+     */
+    public static int yearDays(int year) {
+        return YEAR_START[year - MIN_YEAR + 1] - YEAR_START[year - MIN_YEAR];
+    }
+
+    /**
+     * 压缩农历日期
+     *
+     * @param index      LUNAR_YEARS中的下标
+     * @param k          当年的第几个月(含闰月, 从0开始), 闰月排在同名月份之后
+     * @param dayOfMonth 日
+     * @return
+     */
+    private static int pack(int index, int k, int dayOfMonth) {
+        int leap = LUNAR_YEARS[index] >>> 13;
+        int lunarMonth = leap == 0 || k < leap ? k + 1 : k;
+        int isLeap = leap != 0 && k == leap ? 1 : 0;
+        return (index + MIN_YEAR) << 10 | isLeap << 9 | lunarMonth << 5 | dayOfMonth;
+    }
+
+    /**
+     * @param lunar 压缩的农历日期
+     * @return 农历年
+     */
+    public static int getYear(int lunar) {
+        return lunar >>> 10;
+    }
+
+    /**
+     * @param lunar 压缩的农历日期
+     * @return 农历月, 1~12
+     */
+    public static int getMonth(int lunar) {
+        return (lunar >>> 5) & 0xf;
+    }
+
+    /**
+     * @param lunar 压缩的农历日期
+     * @return 农历日, 1~30
+     */
+    public static int getDay(int lunar) {
+        return lunar & 0x1f;
+    }
+
+    /**
+     * @param lunar 压缩的农历日期
+     * @return 是否为闰月
+     */
+    public static boolean isLeap(int lunar) {
+        return (lunar & 0x200) != 0;
+    }
+}
@@ -0,0 +1,146 @@
+package com.dsw.calendar.utils;
+
+/**
+ * 节气日期表, 由library模块的generateSolarTermTable任务生成, 不要手工修改
+ *
+ * 每年一个long, 第2 * term位起的两位为第term个节气(0为小寒, 按时间顺序)的日期号与BASE_DAYS[term]之差,
+ * 日期为北京时间。
+ */
+final class SolarTermTable {
+    static final int FIRST_YEAR = 1800;
+    static final int LAST_YEAR = 2300;
+
+    static final byte[] BASE_DAYS = {4, 19, 3, 18, 4, 19, 4, 19, 4, 20, 4, 20, 6, 22, 6, 22, 6, 22, 7, 22, 6, 21, 6, 21};
+
+    static final long[] TERMS = {
+            0x555665a65a55L, 0x5aa6a6a65a56L, 0x6aaaaaaa9a5aL, 0xaaabaabaaa6aL,  // 1800
+            0x555665a65aaaL, 0x5aa6a6a65a56L, 0x6aaaa6aa9a56L, 0xaaaaaabaaa6aL,  // 1804
+            0x555665a65aaaL, 0x56a665a65a56L, 0x6aaaa6aa9a56L, 0xaaaaaabaaa5aL,  // 1808
+            0x555665665aaaL, 0x56a665a65a55L, 0x6aaaa6aa9a56L, 0x6aaaaaaaaa5aL,  // 1812
+            0x5556656659aaL, 0x569665a65a55L, 0x5aaaa6aa9a56L, 0x6aaaaaaa9a5aL,  // 1816
+            0x5556656559aaL, 0x569665a65a55L, 0x5aa6a6aa9a56L, 0x6aaaaaaa9a5aL,  // 1820
+            0x55565565556aL, 0x569665a65a55L, 0x5aa6a6aa5a56L, 0x6aaaaaaa9a5aL,  // 1824
+            0x55565565556aL, 0x559665a65a55L, 0x5aa6a6a65a56L, 0x6aaaaaaa9a5aL,  // 1828
+            0x55565565556aL, 0x555665a65a55L, 0x5aa6a6a65a56L, 0x6aaaa6aa9a5aL,  // 1832
+            0x55555565556aL, 0x555665a65a55L, 0x5aa665a65a56L, 0x6aaaa6aa9a5aL,  // 1836
+            0x55555565556aL, 0x555665665a55L, 0x5aa665a65a56L, 0x6aaaa6aa9a56L,  // 1840
+            0x55555555555aL, 0x555665665a55L, 0x56a665a65a55L, 0x6aaaa6aa9a56L,  // 1844
+            0x15555555455aL, 0x555665665955L, 0x569665a65a55L, 0x5aa6a6aa9a56L,  // 1848
+            0x15555555455aL, 0x555665655955L, 0x569665a65a55L, 0x5aa6a6aa9a56L,  // 1852
+            0x15555555455aL, 0x555655655515L, 0x569665a65a55L, 0x5aa6a6a65a56L,  // 1856
+            0x15555555455aL, 0x555655655515L, 0x555665a65a55L, 0x5aa6a6a65a56L,  // 1860
+            0x15555155455aL, 0x555655655515L, 0x555665a65a55L, 0x5aa665a65a56L,  // 1864
+            0x15555155455aL, 0x555555655515L, 0x555665665a55L, 0x5aa665a65a56L,  // 1868
+            0x15555155455aL, 0x555555655515L, 0x555665665a55L, 0x5aa665a65a56L,  // 1872
+            0x155551554556L, 0x555555555505L, 0x555665665a55L, 0x56a665a65a55L,  // 1876
+            0x155551554556L, 0x555555554505L, 0x555665655955L, 0x569665a65a55L,  // 1880
+            0x055151554556L, 0x155555554505L, 0x555655655955L, 0x569665a65a55L,  // 1884
+            0x055151510556L, 0x155555554505L, 0x555655655515L, 0x569665a65a55L,  // 1888
+            0x055151510556L, 0x155555554505L, 0x555655655515L, 0x555665a65a55L,  // 1892
+            0x055151510556L, 0x155551554505L, 0x555555655515L, 0x555665665a55L,  // 1896
+            0x5aa665a65a56L, 0x6aaaa6aa9a5aL, 0xaaaaaabaaa6aL, 0xaaabbabbafaaL,  // 1900
+            0x5aa665a65aabL, 0x6aaaa6aa9a5aL, 0xaaaaaaaaaa6aL, 0xaaabbabbafaaL,  // 1904
+            0x5aa665a65aabL, 0x6aaaa6aa9a5aL, 0xaaaaaaaaaa6aL, 0xaaabbabbafaaL,  // 1908
+            0x56a665a65aabL, 0x6aa6a6aa9a56L, 0xaaaaaaaa9a5aL, 0xaaabaabaaeaaL,  // 1912
+            0x569665a65aaaL, 0x6aa6a6a69a56L, 0x6aaaaaaa9a5aL, 0xaaabaabaaeaaL,  // 1916
+            0x569665a65aaaL, 0x5aa6a6a65a56L, 0x6aaaaaaa9a5aL, 0xaaabaabaaa6aL,  // 1920
+            0x569665a65aaaL, 0x5aa6a6a65a56L, 0x6aaaa6aa9a5aL, 0xaaabaabaaa6aL,  // 1924
+            0x555665a65aaaL, 0x5aa665a65a56L, 0x6aaaa6aa9a5aL, 0xaaaaaabaaa6aL,  // 1928
+            0x555665665aaaL, 0x5aa665a65a56L, 0x6aaaa6aa9a5aL, 0xaaaaaaaaaa6aL,  // 1932
+            0x555665665aaaL, 0x5aa665a65a56L, 0x6aaaa6aa9a5aL, 0xaaaaaaaaaa6aL,  // 1936
+            0x555665665aaaL, 0x5aa665a65a56L, 0x6aaaa6aa9a5aL, 0xaaaaaaaaaa6aL,  // 1940
+            0x555665655aaaL, 0x569665a65a56L, 0x6aa6a6aa9a56L, 0xaaaaaaaa9a5aL,  // 1944
+            0x5556556559aaL, 0x569665a65a55L, 0x6aa6a6a65a56L, 0x6aaaaaaa9a5aL,  // 1948
+            0x5556556559aaL, 0x569665a65a55L, 0x5aa6a6a65a56L, 0x6aaaa6aa9a5aL,  // 1952
+            0x5556556555aaL, 0x569665a65a55L, 0x5aa665a65a56L, 0x6aaaa6aa9a5aL,  // 1956
+            0x55555565556aL, 0x555665665a55L, 0x5aa665a65a56L, 0x6aaaa6aa9a5aL,  // 1960
+            0x55555565556aL, 0x555665665a55L, 0x5aa665a65a56L, 0x6aaaa6aa9a5aL,  // 1964
+            0x55555555556aL, 0x555665665a55L, 0x5aa665a65a56L, 0x6aaaa6aa9a5aL,  // 1968
+            0x55555555556aL, 0x555665655a55L, 0x5aa665a65a56L, 0x6aa6a6aa9a5aL,  // 1972
+            0x55555555456aL, 0x555655655a55L, 0x5a9665a65a56L, 0x6aa6a6a69a56L,  // 1976
+            0x55555555456aL, 0x555655655a55L, 0x569665a65a56L, 0x6aa6a6a65a56L,  // 1980
+            0x55555155455aL, 0x555655655955L, 0x569665a65a55L, 0x5aa6a5a65a56L,  // 1984
+            0x15555155455aL, 0x555555655555L, 0x569665665a55L, 0x5aa665a65a56L,  // 1988
+            0x15555155455aL, 0x555555655515L, 0x555665665a55L, 0x5aa665a65a56L,  // 1992
+            0x15555155455aL, 0x555555555515L, 0x555665665a55L, 0x5aa665a65a56L,  // 1996
+            0x15555155455aL, 0x555555555515L, 0x555665665a55L, 0x5aa665a65a56L,  // 2000
+            0x15555155455aL, 0x555555555515L, 0x555655655a55L, 0x5aa665a65a56L,  // 2004
+            0x15515155455aL, 0x555555554515L, 0x555655655a55L, 0x5a9665a65a56L,  // 2008
+            0x15515151455aL, 0x555551554515L, 0x555655655a55L, 0x569665a65a56L,  // 2012
+            0x155151510556L, 0x555551554505L, 0x555655655955L, 0x569665665a55L,  // 2016
+            0x155110510556L, 0x155551554505L, 0x555555655555L, 0x569665665a55L,  // 2020
+            0x055110510556L, 0x155551554505L, 0x555555555515L, 0x555665665a55L,  // 2024
+            0x055110510556L, 0x155551554505L, 0x555555555515L, 0x555665665a55L,  // 2028
+            0x055110510556L, 0x155551554505L, 0x555555555515L, 0x555655655a55L,  // 2032
+            0x055110510556L, 0x155551554505L, 0x555555555515L, 0x555655655a55L,  // 2036
+            0x055110510556L, 0x155151514505L, 0x555555554515L, 0x555655655a55L,  // 2040
+            0x054110510556L, 0x155151510505L, 0x555551554515L, 0x555655655a55L,  // 2044
+            0x014110110556L, 0x155110510501L, 0x555551554505L, 0x555555655555L,  // 2048
+            0x014110110555L, 0x155110510501L, 0x555551554505L, 0x555555555555L,  // 2052
+            0x014110110555L, 0x055110510501L, 0x155551554505L, 0x555555555555L,  // 2056
+            0x000110110555L, 0x055110510501L, 0x155551554505L, 0x555555555515L,  // 2060
+            0x000110110555L, 0x055110510501L, 0x155551554505L, 0x555555555515L,  // 2064
+            0x000100100555L, 0x055110510501L, 0x155151514505L, 0x555555555515L,  // 2068
+            0x000100100555L, 0x054110510501L, 0x155151514505L, 0x555551554515L,  // 2072
+            0x000100100555L, 0x054110510501L, 0x155150510505L, 0x555551554515L,  // 2076
+            0x000100100555L, 0x014110110501L, 0x155110510505L, 0x555551554505L,  // 2080
+            0x000000100055L, 0x014110110500L, 0x155110510501L, 0x555551554505L,  // 2084
+            0x000000000055L, 0x014110110500L, 0x055110510501L, 0x155551554505L,  // 2088
+            0x000000000055L, 0x000110110500L, 0x055110510501L, 0x155551554505L,  // 2092
+            0x000000000015L, 0x000100110500L, 0x055110510501L, 0x155551554505L,  // 2096
+            0x555555555515L, 0x555655655a55L, 0x5aa665a65a56L, 0x6aa6a6a69a5aL,  // 2100
+            0x55555155456aL, 0x555655655a55L, 0x5a9665a65a56L, 0x6aa6a5a69a5aL,  // 2104
+            0x55555155456aL, 0x555655655a55L, 0x5a9665665a56L, 0x6aa665a65a5aL,  // 2108
+            0x55555155456aL, 0x555555655a55L, 0x569665665a56L, 0x6aa665a65a5aL,  // 2112
+            0x55555155456aL, 0x555555555955L, 0x569665665a56L, 0x6aa665a65a56L,  // 2116
+            0x55555155455aL, 0x555555555555L, 0x565665665a55L, 0x5aa665a65a56L,  // 2120
+            0x15555155455aL, 0x555555555555L, 0x555655665a55L, 0x5aa665a65a56L,  // 2124
+            0x15555155455aL, 0x555555555515L, 0x555655655a55L, 0x5aa665a65a56L,  // 2128
+            0x15515151455aL, 0x555551555515L, 0x555655655a55L, 0x5aa665a65a56L,  // 2132
+            0x15515051455aL, 0x555551554515L, 0x555655655a55L, 0x5a9665665a56L,  // 2136
+            0x15511051055aL, 0x555551554515L, 0x555555655a55L, 0x5a9665665a56L,  // 2140
+            0x15511051055aL, 0x555551554515L, 0x555555555a55L, 0x569665665a56L,  // 2144
+            0x15511051055aL, 0x555551554515L, 0x555555555955L, 0x569665665a56L,  // 2148
+            0x155110510556L, 0x555551554505L, 0x555555555555L, 0x565655665a55L,  // 2152
+            0x055110510556L, 0x155551554505L, 0x555555555555L, 0x555655655a55L,  // 2156
+            0x055110510556L, 0x155551514505L, 0x555551555515L, 0x555655655a55L,  // 2160
+            0x055110510556L, 0x155150514505L, 0x555551555515L, 0x555655655a55L,  // 2164
+            0x054110510556L, 0x155150514505L, 0x555551554515L, 0x555655655a55L,  // 2168
+            0x054110110556L, 0x155110510505L, 0x555551554515L, 0x555555555a55L,  // 2172
+            0x054110110556L, 0x155110510505L, 0x555551554515L, 0x555555555a55L,  // 2176
+            0x014110110556L, 0x155110510505L, 0x555551554515L, 0x555555555555L,  // 2180
+            0x014110110556L, 0x155110510505L, 0x555551554505L, 0x555555555555L,  // 2184
+            0x010100110556L, 0x155110510501L, 0x555551554505L, 0x555555555555L,  // 2188
+            0x000100100555L, 0x055110510501L, 0x155150514505L, 0x555551555515L,  // 2192
+            0x000100100555L, 0x055110110501L, 0x155150514505L, 0x555551554515L,  // 2196
+            0x555655655a55L, 0x5a9665665a56L, 0x6aa665a69a5aL, 0xaaaaa6aa9a6aL,  // 2200
+            0x555555655aaaL, 0x5a9665665a56L, 0x6aa665a65a5aL, 0xaaaaa6aa9a6aL,  // 2204
+            0x555555555aaaL, 0x5a9665665a56L, 0x6aa665a65a5aL, 0xaaaaa6aa9a6aL,  // 2208
+            0x555555555aaaL, 0x569665665a56L, 0x6aa665a65a5aL, 0xaaaaa6aa9a6aL,  // 2212
+            0x5555555555aaL, 0x569655665a56L, 0x6aa665a65a5aL, 0xaaaaa6aa9a5aL,  // 2216
+            0x5555555555aaL, 0x565655655a56L, 0x6aa665a65a56L, 0xaaaaa6a69a5aL,  // 2220
+            0x5555515555aaL, 0x555655655a55L, 0x5aa665a65a56L, 0x6aa6a5a69a5aL,  // 2224
+            0x5555515555aaL, 0x555655655a55L, 0x5a9665665a56L, 0x6aa665a69a5aL,  // 2228
+            0x55555155456aL, 0x555555655a55L, 0x5a9665665a56L, 0x6aa665a65a5aL,  // 2232
+            0x55555155456aL, 0x555555555a55L, 0x5a9665665a56L, 0x6aa665a65a5aL,  // 2236
+            0x55555155456aL, 0x555555555a55L, 0x5a9665665a56L, 0x6aa665a65a5aL,  // 2240
+            0x55555155456aL, 0x555555555a55L, 0x5a9655665a56L, 0x6aa665a65a5aL,  // 2244
+            0x55555155456aL, 0x555555555555L, 0x569655665a56L, 0x6aa665a65a5aL,  // 2248
+            0x55555151456aL, 0x555551555555L, 0x565655655a56L, 0x6aa665a65a56L,  // 2252
+            0x55515051455aL, 0x555551555555L, 0x555655655a55L, 0x5aa665665a56L,  // 2256
+            0x55511051455aL, 0x555551555555L, 0x555655655a55L, 0x5a9665665a56L,  // 2260
+            0x15511051455aL, 0x555551555515L, 0x555555555a55L, 0x5a9665665a56L,  // 2264
+            0x15511051055aL, 0x555551554515L, 0x555555555a55L, 0x5a9665665a56L,  // 2268
+            0x15511051055aL, 0x555551554515L, 0x555555555a55L, 0x5a9655665a56L,  // 2272
+            0x15511051055aL, 0x555551554515L, 0x555555555a55L, 0x5a9655665a56L,  // 2276
+            0x15511051055aL, 0x555551554515L, 0x555551555555L, 0x569655655a56L,  // 2280
+            0x15511051055aL, 0x555550514515L, 0x555551555555L, 0x565655655a56L,  // 2284
+            0x155110110556L, 0x555110514505L, 0x555551555555L, 0x555655655a55L,  // 2288
+            0x055110110556L, 0x555110514505L, 0x555551555555L, 0x555655555a55L,  // 2292
+            0x054110110556L, 0x155110514505L, 0x555551554515L, 0x555555555a55L,  // 2296
+            0x5a9665665a56L  // 2300
+    };
+
+    private SolarTermTable() {
+    }
+}
@@ -26,139 +26,21 @@ public class SolarTermsUtil {
     private int chineseMonth;
     private int chineseDate;
  
-    // 初始日，公历农历对应日期：
-    // 公历 1901 年 1 月 1 日，对应农历 4598 年 11 月 11 日
-    private static int baseYear = 1901;
-    private static int baseMonth = 1;
-    private static int baseDate = 1;
-    private static int baseIndex = 0;
-    private static int baseChineseYear = 4598 - 1;
-    private static int baseChineseMonth = 11;
-    private static int baseChineseDate = 11;
+    /**
+     * 农历年加上该值即为这里使用的农历纪年(黄帝纪年), 农历1900年为4597年
+     */
+    private static final int CHINESE_YEAR_OFFSET = 2697;
+    /**
+     * 节气表范围内每年的节气日期, 按需填充
+     */
+    private static final byte[][] TERM_DAYS =
+            new byte[SolarTermTable.LAST_YEAR - SolarTermTable.FIRST_YEAR + 1][];
     private static char[] daysInGregorianMonth = { 31, 28, 31, 30, 31, 30, 31,
             31, 30, 31, 30, 31 };
  
     private int sectionalTerm;
     private int principleTerm;
  
-    private static char[][] sectionalTermMap = {
-            { 7, 6, 6, 6, 6, 6, 6, 6, 6, 5, 6, 6, 6, 5, 5, 6, 6, 5, 5, 5, 5, 5,
-                    5, 5, 5, 4, 5, 5 },
-            { 5, 4, 5, 5, 5, 4, 4, 5, 5, 4, 4, 4, 4, 4, 4, 4, 4, 3, 4, 4, 4, 3,
-                    3, 4, 4, 3, 3, 3 },
-            { 6, 6, 6, 7, 6, 6, 6, 6, 5, 6, 6, 6, 5, 5, 6, 6, 5, 5, 5, 6, 5, 5,
-                    5, 5, 4, 5, 5, 5, 5 },
-            { 5, 5, 6, 6, 5, 5, 5, 6, 5, 5, 5, 5, 4, 5, 5, 5, 4, 4, 5, 5, 4, 4,
-                    4, 5, 4, 4, 4, 4, 5 },
-            { 6, 6, 6, 7, 6, 6, 6, 6, 5, 6, 6, 6, 5, 5, 6, 6, 5, 5, 5, 6, 5, 5,
-                    5, 5, 4, 5, 5, 5, 5 },
-            { 6, 6, 7, 7, 6, 6, 6, 7, 6, 6, 6, 6, 5, 6, 6, 6, 5, 5, 6, 6, 5, 5,
-                    5, 6, 5, 5, 5, 5, 4, 5, 5, 5, 5 },
-            { 7, 8, 8, 8, 7, 7, 8, 8, 7, 7, 7, 8, 7, 7, 7, 7, 6, 7, 7, 7, 6, 6,
-                    7, 7, 6, 6, 6, 7, 7 },
-            { 8, 8, 8, 9, 8, 8, 8, 8, 7, 8, 8, 8, 7, 7, 8, 8, 7, 7, 7, 8, 7, 7,
-                    7, 7, 6, 7, 7, 7, 6, 6, 7, 7, 7 },
-            { 8, 8, 8, 9, 8, 8, 8, 8, 7, 8, 8, 8, 7, 7, 8, 8, 7, 7, 7, 8, 7, 7,
-                    7, 7, 6, 7, 7, 7, 7 },
-            { 9, 9, 9, 9, 8, 9, 9, 9, 8, 8, 9, 9, 8, 8, 8, 9, 8, 8, 8, 8, 7, 8,
-                    8, 8, 7, 7, 8, 8, 8 },
-            { 8, 8, 8, 8, 7, 8, 8, 8, 7, 7, 8, 8, 7, 7, 7, 8, 7, 7, 7, 7, 6, 7,
-                    7, 7, 6, 6, 7, 7, 7 },
-            { 7, 8, 8, 8, 7, 7, 8, 8, 7, 7, 7, 8, 7, 7, 7, 7, 6, 7, 7, 7, 6, 6,
-                    7, 7, 6, 6, 6, 7, 7 } };
-    private static char[][] sectionalTermYear = {
-            { 13, 49, 85, 117, 149, 185, 201, 250, 250 },
-            { 13, 45, 81, 117, 149, 185, 201, 250, 250 },
-            { 13, 48, 84, 112, 148, 184, 200, 201, 250 },
-            { 13, 45, 76, 108, 140, 172, 200, 201, 250 },
-            { 13, 44, 72, 104, 132, 168, 200, 201, 250 },
-            { 5, 33, 68, 96, 124, 152, 188, 200, 201 },
-            { 29, 57, 85, 120, 148, 176, 200, 201, 250 },
-            { 13, 48, 76, 104, 132, 168, 196, 200, 201 },
-            { 25, 60, 88, 120, 148, 184, 200, 201, 250 },
-            { 16, 44, 76, 108, 144, 172, 200, 201, 250 },
-            { 28, 60, 92, 124, 160, 192, 200, 201, 250 },
-            { 17, 53, 85, 124, 156, 188, 200, 201, 250 } };
-    private static char[][] principleTermMap = {
-            { 21, 21, 21, 21, 21, 20, 21, 21, 21, 20, 20, 21, 21, 20, 20, 20,
-                    20, 20, 20, 20, 20, 19, 20, 20, 20, 19, 19, 20 },
-            { 20, 19, 19, 20, 20, 19, 19, 19, 19, 19, 19, 19, 19, 18, 19, 19,
-                    19, 18, 18, 19, 19, 18, 18, 18, 18, 18, 18, 18 },
-            { 21, 21, 21, 22, 21, 21, 21, 21, 20, 21, 21, 21, 20, 20, 21, 21,
-                    20, 20, 20, 21, 20, 20, 20, 20, 19, 20, 20, 20, 20 },
-            { 20, 21, 21, 21, 20, 20, 21, 21, 20, 20, 20, 21, 20, 20, 20, 20,
-                    19, 20, 20, 20, 19, 19, 20, 20, 19, 19, 19, 20, 20 },
-            { 21, 22, 22, 22, 21, 21, 22, 22, 21, 21, 21, 22, 21, 21, 21, 21,
-                    20, 21, 21, 21, 20, 20, 21, 21, 20, 20, 20, 21, 21 },
-            { 22, 22, 22, 22, 21, 22, 22, 22, 21, 21, 22, 22, 21, 21, 21, 22,
-                    21, 21, 21, 21, 20, 21, 21, 21, 20, 20, 21, 21, 21 },
-            { 23, 23, 24, 24, 23, 23, 23, 24, 23, 23, 23, 23, 22, 23, 23, 23,
-                    22, 22, 23, 23, 22, 22, 22, 23, 22, 22, 22, 22, 23 },
-            { 23, 24, 24, 24, 23, 23, 24, 24, 23, 23, 23, 24, 23, 23, 23, 23,
-                    22, 23, 23, 23, 22, 22, 23, 23, 22, 22, 22, 23, 23 },
-            { 23, 24, 24, 24, 23, 23, 24, 24, 23, 23, 23, 24, 23, 23, 23, 23,
-                    22, 23, 23, 23, 22, 22, 23, 23, 22, 22, 22, 23, 23 },
-            { 24, 24, 24, 24, 23, 24, 24, 24, 23, 23, 24, 24, 23, 23, 23, 24,
-                    23, 23, 23, 23, 22, 23, 23, 23, 22, 22, 23, 23, 23 },
-            { 23, 23, 23, 23, 22, 23, 23, 23, 22, 22, 23, 23, 22, 22, 22, 23,
-                    22, 22, 22, 22, 21, 22, 22, 22, 21, 21, 22, 22, 22 },
-            { 22, 22, 23, 23, 22, 22, 22, 23, 22, 22, 22, 22, 21, 22, 22, 22,
-                    21, 21, 22, 22, 21, 21, 21, 22, 21, 21, 21, 21, 22 } };
-    private static char[][] principleTermYear = {
-            { 13, 45, 81, 113, 149, 185, 201 },
-            { 21, 57, 93, 125, 161, 193, 201 },
-            { 21, 56, 88, 120, 152, 188, 200, 201 },
-            { 21, 49, 81, 116, 144, 176, 200, 201 },
-            { 17, 49, 77, 112, 140, 168, 200, 201 },
-            { 28, 60, 88, 116, 148, 180, 200, 201 },
-            { 25, 53, 84, 112, 144, 172, 200, 201 },
-            { 29, 57, 89, 120, 148, 180, 200, 201 },
-            { 17, 45, 73, 108, 140, 168, 200, 201 },
-            { 28, 60, 92, 124, 160, 192, 200, 201 },
-            { 16, 44, 80, 112, 148, 180, 200, 201 },
-            { 17, 53, 88, 120, 156, 188, 200, 201 } };
- 
-    private static char[] chineseMonths = {
-            // 农历月份大小压缩表，两个字节表示一年。两个字节共十六个二进制位数，
-            // 前四个位数表示闰月月份，后十二个位数表示十二个农历月份的大小。
-            0x00, 0x04, 0xad, 0x08, 0x5a, 0x01, 0xd5, 0x54, 0xb4, 0x09, 0x64,
-            0x05, 0x59, 0x45, 0x95, 0x0a, 0xa6, 0x04, 0x55, 0x24, 0xad, 0x08,
-            0x5a, 0x62, 0xda, 0x04, 0xb4, 0x05, 0xb4, 0x55, 0x52, 0x0d, 0x94,
-            0x0a, 0x4a, 0x2a, 0x56, 0x02, 0x6d, 0x71, 0x6d, 0x01, 0xda, 0x02,
-            0xd2, 0x52, 0xa9, 0x05, 0x49, 0x0d, 0x2a, 0x45, 0x2b, 0x09, 0x56,
-            0x01, 0xb5, 0x20, 0x6d, 0x01, 0x59, 0x69, 0xd4, 0x0a, 0xa8, 0x05,
-            0xa9, 0x56, 0xa5, 0x04, 0x2b, 0x09, 0x9e, 0x38, 0xb6, 0x08, 0xec,
-            0x74, 0x6c, 0x05, 0xd4, 0x0a, 0xe4, 0x6a, 0x52, 0x05, 0x95, 0x0a,
-            0x5a, 0x42, 0x5b, 0x04, 0xb6, 0x04, 0xb4, 0x22, 0x6a, 0x05, 0x52,
-            0x75, 0xc9, 0x0a, 0x52, 0x05, 0x35, 0x55, 0x4d, 0x0a, 0x5a, 0x02,
-            0x5d, 0x31, 0xb5, 0x02, 0x6a, 0x8a, 0x68, 0x05, 0xa9, 0x0a, 0x8a,
-            0x6a, 0x2a, 0x05, 0x2d, 0x09, 0xaa, 0x48, 0x5a, 0x01, 0xb5, 0x09,
-            0xb0, 0x39, 0x64, 0x05, 0x25, 0x75, 0x95, 0x0a, 0x96, 0x04, 0x4d,
-            0x54, 0xad, 0x04, 0xda, 0x04, 0xd4, 0x44, 0xb4, 0x05, 0x54, 0x85,
-            0x52, 0x0d, 0x92, 0x0a, 0x56, 0x6a, 0x56, 0x02, 0x6d, 0x02, 0x6a,
-            0x41, 0xda, 0x02, 0xb2, 0xa1, 0xa9, 0x05, 0x49, 0x0d, 0x0a, 0x6d,
-            0x2a, 0x09, 0x56, 0x01, 0xad, 0x50, 0x6d, 0x01, 0xd9, 0x02, 0xd1,
-            0x3a, 0xa8, 0x05, 0x29, 0x85, 0xa5, 0x0c, 0x2a, 0x09, 0x96, 0x54,
-            0xb6, 0x08, 0x6c, 0x09, 0x64, 0x45, 0xd4, 0x0a, 0xa4, 0x05, 0x51,
-            0x25, 0x95, 0x0a, 0x2a, 0x72, 0x5b, 0x04, 0xb6, 0x04, 0xac, 0x52,
-            0x6a, 0x05, 0xd2, 0x0a, 0xa2, 0x4a, 0x4a, 0x05, 0x55, 0x94, 0x2d,
-            0x0a, 0x5a, 0x02, 0x75, 0x61, 0xb5, 0x02, 0x6a, 0x03, 0x61, 0x45,
-            0xa9, 0x0a, 0x4a, 0x05, 0x25, 0x25, 0x2d, 0x09, 0x9a, 0x68, 0xda,
-            0x08, 0xb4, 0x09, 0xa8, 0x59, 0x54, 0x03, 0xa5, 0x0a, 0x91, 0x3a,
-            0x96, 0x04, 0xad, 0xb0, 0xad, 0x04, 0xda, 0x04, 0xf4, 0x62, 0xb4,
-            0x05, 0x54, 0x0b, 0x44, 0x5d, 0x52, 0x0a, 0x95, 0x04, 0x55, 0x22,
-            0x6d, 0x02, 0x5a, 0x71, 0xda, 0x02, 0xaa, 0x05, 0xb2, 0x55, 0x49,
-            0x0b, 0x4a, 0x0a, 0x2d, 0x39, 0x36, 0x01, 0x6d, 0x80, 0x6d, 0x01,
-            0xd9, 0x02, 0xe9, 0x6a, 0xa8, 0x05, 0x29, 0x0b, 0x9a, 0x4c, 0xaa,
-            0x08, 0xb6, 0x08, 0xb4, 0x38, 0x6c, 0x09, 0x54, 0x75, 0xd4, 0x0a,
-            0xa4, 0x05, 0x45, 0x55, 0x95, 0x0a, 0x9a, 0x04, 0x55, 0x44, 0xb5,
-            0x04, 0x6a, 0x82, 0x6a, 0x05, 0xd2, 0x0a, 0x92, 0x6a, 0x4a, 0x05,
-            0x55, 0x0a, 0x2a, 0x4a, 0x5a, 0x02, 0xb5, 0x02, 0xb2, 0x31, 0x69,
-            0x03, 0x31, 0x73, 0xa9, 0x0a, 0x4a, 0x05, 0x2d, 0x55, 0x2d, 0x09,
-            0x5a, 0x01, 0xd5, 0x48, 0xb4, 0x09, 0x68, 0x89, 0x54, 0x0b, 0xa4,
-            0x0a, 0xa5, 0x6a, 0x95, 0x04, 0xad, 0x08, 0x6a, 0x44, 0xda, 0x04,
-            0x74, 0x05, 0xb0, 0x25, 0x54, 0x03 };
- 
     /**
      * 用于保存24节气
      */
@@ -174,92 +56,110 @@ public class SolarTermsUtil {
         gregorianYear = calendar.get(Calendar.YEAR);
         gregorianMonth = calendar.get(Calendar.MONTH) + 1;
         gregorianDate = calendar.get(Calendar.DATE);
-        computeChineseFields();
-        computeSolarTerms();
     }
  
+    /**
+     * 由LunarEngine换算农历, 不再从基准日逐日累加
+     *
+     * @return 0 成功, 1 超出支持范围
+     */
     public int computeChineseFields() {
-        if (gregorianYear < 1901 || gregorianYear > 2100)
+        int epochDay = DateUtils.toEpochDay(gregorianYear, gregorianMonth, gregorianDate);
+        if (!LunarEngine.isSupported(epochDay))
             return 1;
-        int startYear = baseYear;
-        int startMonth = baseMonth;
-        int startDate = baseDate;
-        chineseYear = baseChineseYear;
-        chineseMonth = baseChineseMonth;
-        chineseDate = baseChineseDate;
-        // 第二个对应日，用以提高计算效率
-        // 公历 2000 年 1 月 1 日，对应农历 4697 年 11 月 25 日
-        if (gregorianYear >= 2000) {
-            startYear = baseYear + 99;
-            startMonth = 1;
-            startDate = 1;
-            chineseYear = baseChineseYear + 99;
-            chineseMonth = 11;
-            chineseDate = 25;
-        }
-        int daysDiff = 0;
-        for (int i = startYear; i < gregorianYear; i++) {
-            daysDiff += 365;
-            if (isGregorianLeapYear(i))
-                daysDiff += 1; // leap year
-        }
-        for (int i = startMonth; i < gregorianMonth; i++) {
-            daysDiff += daysInGregorianMonth(gregorianYear, i);
-        }
-        daysDiff += gregorianDate - startDate;
- 
-        chineseDate += daysDiff;
-        int lastDate = daysInChineseMonth(chineseYear, chineseMonth);
-        int nextMonth = nextChineseMonth(chineseYear, chineseMonth);
-        while (chineseDate > lastDate) {
-            if (Math.abs(nextMonth) < Math.abs(chineseMonth))
-                chineseYear++;
-            chineseMonth = nextMonth;
-            chineseDate -= lastDate;
-            lastDate = daysInChineseMonth(chineseYear, chineseMonth);
-            nextMonth = nextChineseMonth(chineseYear, chineseMonth);
-        }
+        int lunar = LunarEngine.toLunarOfEpochDay(epochDay);
+        chineseYear = LunarEngine.getYear(lunar) + CHINESE_YEAR_OFFSET;
+        chineseMonth = LunarEngine.isLeap(lunar) ? -LunarEngine.getMonth(lunar) : LunarEngine.getMonth(lunar);
+        chineseDate = LunarEngine.getDay(lunar);
         return 0;
     }
  
     public int computeSolarTerms() {
-        if (gregorianYear < 1901 || gregorianYear > 2100)
+        if (gregorianYear < SolarTermTable.FIRST_YEAR || gregorianYear > SolarTermTable.LAST_YEAR)
             return 1;
-        sectionalTerm = sectionalTerm(gregorianYear, gregorianMonth);
-        principleTerm = principleTerm(gregorianYear, gregorianMonth);
+        byte[] termDays = termDays(gregorianYear);
+        sectionalTerm = termDays[2 * (gregorianMonth - 1)];
+        principleTerm = termDays[2 * (gregorianMonth - 1) + 1];
         return 0;
     }
  
+    /**
+     * 公历日期是哪个节气, 查每年缓存的节气日期表, 不计算农历
+     *
+     * @param year  公历年
+     * @param month 公历月, 1~12
+     * @param day   公历日
+     * @return 节气序号0~23, 从小寒开始按时间顺序排列(小寒、大寒、立春……冬至); 不是节气或超出节气表范围(1800~2300年)时返回-1
+     */
+    public static int solarTermOf(int year, int month, int day) {
+        if (year < SolarTermTable.FIRST_YEAR || year > SolarTermTable.LAST_YEAR)
+            return -1;
+        byte[] termDays = termDays(year);
+        int index = 2 * (month - 1);
+        if (termDays[index] == day)
+            return index;
+        if (termDays[index + 1] == day)
+            return index + 1;
+        return -1;
+    }
+ 
+    /**
+     * 节气名称
+     *
+     * @param term solarTermOf返回的节气序号
+     * @return
+     */
+    public static String getSolarTermName(int term) {
+        return term % 2 == 0 ? sectionalTermNames[term / 2] : principleTermNames[term / 2];
+    }
+ 
+    /**
+     * 某年24个节气所在的日期号, 第一次用到该年时计算并缓存
+     * 下标2 * (月 - 1)为该月的节, 2 * (月 - 1) + 1为该月的中气
+     */
+    private static synchronized byte[] termDays(int year) {
+        byte[] termDays = TERM_DAYS[year - SolarTermTable.FIRST_YEAR];
+        if (termDays == null) {
+            termDays = new byte[24];
+            for (int m = 1; m <= 12; m++) {
+                termDays[2 * (m - 1)] = (byte) sectionalTerm(year, m);
+                termDays[2 * (m - 1) + 1] = (byte) principleTerm(year, m);
+            }
+            TERM_DAYS[year - SolarTermTable.FIRST_YEAR] = termDays;
+        }
+        return termDays;
+    }
+ 
+    /**
+     * 某月的节(小寒、立春……大雪)在几号
+     *
+     * @param y 公历年
+     * @param m 公历月, 1~12
+     * @return 日期号, 超出节气表范围时返回0
+     */
     public static int sectionalTerm(int y, int m) {
-        if (y < 1901 || y > 2100)
-            return 0;
-        int index = 0;
-        int ry = y - baseYear + 1;
-        while (ry >= sectionalTermYear[m - 1][index])
-            index++;
-        int term = sectionalTermMap[m - 1][4 * index + ry % 4];
-        if ((ry == 121) && (m == 4))
-            term = 5;
-        if ((ry == 132) && (m == 4))
-            term = 5;
-        if ((ry == 194) && (m == 6))
-            term = 6;
-        return term;
+        return termDay(y, 2 * (m - 1));
     }
  
+    /**
+     * 某月的中气(大寒、雨水……冬至)在几号
+     *
+     * @param y 公历年
+     * @param m 公历月, 1~12
+     * @return 日期号, 超出节气表范围时返回0
+     */
     public static int principleTerm(int y, int m) {
-        if (y < 1901 || y > 2100)
+        return termDay(y, 2 * (m - 1) + 1);
+    }
+ 
+    /**
+     * 从生成的节气表中解出第term个节气的日期号
+     */
+    private static int termDay(int y, int term) {
+        if (y < SolarTermTable.FIRST_YEAR || y > SolarTermTable.LAST_YEAR)
             return 0;
-        int index = 0;
-        int ry = y - baseYear + 1;
-        while (ry >= principleTermYear[m - 1][index])
-            index++;
-        int term = principleTermMap[m - 1][4 * index + ry % 4];
-        if ((ry == 171) && (m == 3))
-            term = 21;
-        if ((ry == 181) && (m == 5))
-            term = 21;
-        return term;
+        long terms = SolarTermTable.TERMS[y - SolarTermTable.FIRST_YEAR];
+        return SolarTermTable.BASE_DAYS[term] + (int) (terms >>> (2 * term) & 3);
     }
  
     /**
@@ -287,57 +187,45 @@ public class SolarTermsUtil {
         return d;
     }
  
+    /**
+     * 农历月份的天数
+     *
+     * @param y 农历纪年, 农历1900年为4597年
+     * @param m 农历月, 闰月为负数
+     * @return 29或30, 该年没有这个闰月时返回0
+     */
     public static int daysInChineseMonth(int y, int m) {
-        // 注意：闰月 m < 0
-        int index = y - baseChineseYear + baseIndex;
-        int v = 0;
-        int l = 0;
-        int d = 30;
-        if (1 <= m && m <= 8) {
-            v = chineseMonths[2 * index];
-            l = m - 1;
-            if (((v >> l) & 0x01) == 1)
-                d = 29;
-        } else if (9 <= m && m <= 12) {
-            v = chineseMonths[2 * index + 1];
-            l = m - 9;
-            if (((v >> l) & 0x01) == 1)
-                d = 29;
-        } else {
-            v = chineseMonths[2 * index + 1];
-            v = (v >> 4) & 0x0F;
-            if (v != Math.abs(m)) {
-                d = 0;
-            } else {
-                d = 29;
-                for (int i = 0; i < bigLeapMonthYears.length; i++) {
-                    if (bigLeapMonthYears[i] == index) {
-                        d = 30;
-                        break;
-                    }
-                }
-            }
-        }
-        return d;
+        return LunarEngine.monthDays(y - CHINESE_YEAR_OFFSET, Math.abs(m), m < 0);
     }
  
+    /**
+     * 下一个农历月份
+     *
+     * @param y 农历纪年, 农历1900年为4597年
+     * @param m 农历月, 闰月为负数
+     * @return 下一个月, 闰月为负数
+     */
     public static int nextChineseMonth(int y, int m) {
         int n = Math.abs(m) + 1;
-        if (m > 0) {
-            int index = y - baseChineseYear + baseIndex;
-            int v = chineseMonths[2 * index + 1];
-            v = (v >> 4) & 0x0F;
-            if (v == m)
-                n = -m;
-        }
+        if (m > 0 && LunarEngine.leapMonth(y - CHINESE_YEAR_OFFSET) == m)
+            n = -m;
         if (n == 13)
             n = 1;
         return n;
     }
  
-    // 大闰月的闰年年份
-    private static int[] bigLeapMonthYears = { 6, 14, 19, 25, 33, 36, 38, 41,
-            44, 52, 55, 79, 117, 136, 147, 150, 155, 158, 185, 193 };
+    /**
+     * 公历日期对应的节气名称, 不需要创建SolarTermsUtil
+     *
+     * @param y 公历年
+     * @param m 公历月, 1~12
+     * @param d 公历日
+     * @return 节气名称, 不是节气或超出节气表范围(1800~2300年)时返回""
+     */
+    public static String getSolarTermName(int y, int m, int d) {
+        int term = solarTermOf(y, m, d);
+        return term < 0 ? "" : getSolarTermName(term);
+    }
  
     /**
      * 用于获取24节气的值
@@ -345,24 +233,7 @@ public class SolarTermsUtil {
      * @return 24节气的值
      */
     public String getSolartermsMsg() {
-        String str = "";
-        String gm = String.valueOf(gregorianMonth);
-        if (gm.length() == 1)
-            gm = ' ' + gm;
-        String cm = String.valueOf(Math.abs(chineseMonth));
-        if (cm.length() == 1)
-            cm = ' ' + cm;
-        String gd = String.valueOf(gregorianDate);
-        if (gd.length() == 1)
-            gd = ' ' + gd;
-        String cd = String.valueOf(chineseDate);
-        if (cd.length() == 1)
-            cd = ' ' + cd;
-        if (gregorianDate == sectionalTerm) {
-            str = " " + sectionalTermNames[gregorianMonth - 1];
-        } else if (gregorianDate == principleTerm) {
-            str = " " + principleTermNames[gregorianMonth - 1];
-        }
-        return str;
+        int term = solarTermOf(gregorianYear, gregorianMonth, gregorianDate);
+        return term < 0 ? "" : " " + getSolarTermName(term);
     }
 }
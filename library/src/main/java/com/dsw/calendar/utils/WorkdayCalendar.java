@@ -0,0 +1,249 @@
+package com.dsw.calendar.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.TreeMap;
+
+/**
+ * 法定节假日(休)与调休上班日(班)日历
+ *
+ * 每年两个位图, 每个位图6个long(384位, 够366天), 下标为该年的第几天(1月1日为0);
+ * 查询时只做一次位运算, 不遍历事务, 也不创建任何对象。
+ * 只能用load从文本读取, 每行为某一年的休或班日期, 日期为4位的月日, 区间用-连接, 可以跨月:
+ * <pre>
+ * # 注释
+ * 2024 休 0101 0210-0217 0404-0406
+ * 2024 班 0204 0218 0407
+ * </pre>
+ * 同一年可以有多行; 同一天既是休又是班时以班为准。
+ */
+public class WorkdayCalendar {
+    public static final int NORMAL = 0;
+    public static final int REST = 1;
+    public static final int WORK = 2;
+
+    /**
+     * 每年位图占用的long个数
+     */
+    private static final int WORDS_PER_YEAR = 6;
+
+    /**
+     * 平年每月1日是该年的第几天
+     */
+    private static final int[] MONTH_OFFSETS = { 0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334 };
+
+    /**
+     * 内置的国务院办公厅公布的放假安排
+     */
+    private static final String DEFAULT_DATA =
+            "2020 休 0101 0124-0202 0404-0406 0501-0505 0625-0627 1001-1008\n"
+            + "2020 班 0119 0426 0509 0628 0927 1010\n"
+            + "2021 休 0101-0103 0211-0217 0403-0405 0501-0505 0612-0614 0919-0921 1001-1007\n"
+            + "2021 班 0207 0220 0425 0508 0918 0926 1009\n"
+            + "2022 休 0101-0103 0131-0206 0403-0405 0430-0504 0603-0605 0910-0912 1001-1007 1231\n"
+            + "2022 班 0129 0130 0402 0424 0507 1008 1009\n"
+            + "2023 休 0101-0102 0121-0127 0405 0429-0503 0622-0624 0929-1006 1230-1231\n"
+            + "2023 班 0128 0129 0423 0506 0625 1007 1008\n"
+            + "2024 休 0101 0210-0217 0404-0406 0501-0505 0610 0915-0917 1001-1007\n"
+            + "2024 班 0204 0218 0407 0428 0511 0914 0929 1012\n"
+            + "2025 休 0101 0128-0204 0404-0406 0501-0505 0531-0602 1001-1008\n"
+            + "2025 班 0126 0208 0427 0928 1011\n"
+            + "2026 休 0101-0103 0215-0223 0404-0406 0501-0505 0619-0621 0925-0927 1001-1007\n"
+            + "2026 班 0104 0214 0228 0509 0920 1010\n";
+
+    private static WorkdayCalendar defaultCalendar;
+
+    /**
+     * 数据覆盖的第一年, 没有数据时为0
+     */
+    private final int firstYear;
+    /**
+     * 数据覆盖的最后一年
+     */
+    private final int lastYear;
+    /**
+     * 休、班位图, 第year年的位图从(year - firstYear) * WORDS_PER_YEAR开始
+     */
+    private final long[] restBits;
+    private final long[] workBits;
+
+    private WorkdayCalendar(int firstYear, int lastYear, long[] restBits, long[] workBits) {
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+        this.restBits = restBits;
+        this.workBits = workBits;
+    }
+
+    /**
+     * 内置的放假安排, 覆盖2020~2026年
+     * @return
+     */
+    public static synchronized WorkdayCalendar getDefault() {
+        if (defaultCalendar == null) {
+            try {
+                defaultCalendar = load(new StringReader(DEFAULT_DATA));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return defaultCalendar;
+    }
+
+    /**
+     * 从文本读取放假安排, 格式见类注释
+     * @param reader 调用方负责关闭
+     * @return
+     * @throws IOException
+     * @throws IllegalArgumentException 某行格式不正确
+     */
+    public static WorkdayCalendar load(Reader reader) throws IOException {
+        /** 年份 → {休位图, 班位图} */
+        TreeMap<Integer, long[][]> years = new TreeMap<Integer, long[][]>();
+        BufferedReader in = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.length() == 0 || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            try {
+                if (fields.length < 3) {
+                    throw new IllegalArgumentException("missing dates");
+                }
+                int year = Integer.parseInt(fields[0]);
+                int kind;
+                if ("休".equals(fields[1])) {
+                    kind = 0;
+                } else if ("班".equals(fields[1])) {
+                    kind = 1;
+                } else {
+                    throw new IllegalArgumentException("expected 休 or 班");
+                }
+                long[][] bits = years.get(year);
+                if (bits == null) {
+                    bits = new long[2][WORDS_PER_YEAR];
+                    years.put(year, bits);
+                }
+                for (int i = 2; i < fields.length; i++) {
+                    String range = fields[i];
+                    int dash = range.indexOf('-');
+                    int start = parseDayOfYear(year, dash < 0 ? range : range.substring(0, dash));
+                    int end = dash < 0 ? start : parseDayOfYear(year, range.substring(dash + 1));
+                    if (end < start) {
+                        throw new IllegalArgumentException("bad range " + range);
+                    }
+                    for (int dayOfYear = start; dayOfYear <= end; dayOfYear++) {
+                        bits[kind][dayOfYear >>> 6] |= 1L << dayOfYear;
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("line " + lineNumber + ": " + line, e);
+            }
+        }
+        if (years.isEmpty()) {
+            return new WorkdayCalendar(0, -1, new long[0], new long[0]);
+        }
+        int firstYear = years.firstKey();
+        int lastYear = years.lastKey();
+        long[] restBits = new long[(lastYear - firstYear + 1) * WORDS_PER_YEAR];
+        long[] workBits = new long[restBits.length];
+        for (Integer year : years.keySet()) {
+            long[][] bits = years.get(year);
+            int base = (year - firstYear) * WORDS_PER_YEAR;
+            for (int i = 0; i < WORDS_PER_YEAR; i++) {
+                /** 同一天既是休又是班时以班为准 */
+                restBits[base + i] = bits[0][i] & ~bits[1][i];
+                workBits[base + i] = bits[1][i];
+            }
+        }
+        return new WorkdayCalendar(firstYear, lastYear, restBits, workBits);
+    }
+
+    private static int parseDayOfYear(int year, String monthDay) {
+        if (monthDay.length() != 4) {
+            throw new IllegalArgumentException("bad date " + monthDay);
+        }
+        int value = Integer.parseInt(monthDay);
+        int month = value / 100;
+        int day = value % 100;
+        if (month < 1 || month > 12 || day < 1 || day > SolarTermsUtil.daysInGregorianMonth(year, month)) {
+            throw new IllegalArgumentException("bad date " + monthDay);
+        }
+        return dayOfYear(year, month, day);
+    }
+
+    /**
+     * 该年的第几天, 1月1日为0
+     */
+    private static int dayOfYear(int year, int month, int day) {
+        int dayOfYear = MONTH_OFFSETS[month - 1] + day - 1;
+        if (month > 2 && SolarTermsUtil.isGregorianLeapYear(year)) {
+            dayOfYear++;
+        }
+        return dayOfYear;
+    }
+
+    /**
+     * 数据覆盖的第一年
+     * @return 没有数据时为0
+     */
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    /**
+     * 数据覆盖的最后一年
+     * @return 没有数据时为-1
+     */
+    public int getLastYear() {
+        return lastYear;
+    }
+
+    /**
+     * 获取指定日期的休、班标志
+     *
+     * @param year  公历年
+     * @param month 公历月, 1~12
+     * @param day   公历日
+     * @return REST为休, WORK为班, 其余(包括没有该年数据)为NORMAL
+     */
+    public int getRest(int year, int month, int day) {
+        if (year < firstYear || year > lastYear) {
+            return NORMAL;
+        }
+        int dayOfYear = dayOfYear(year, month, day);
+        int index = (year - firstYear) * WORDS_PER_YEAR + (dayOfYear >>> 6);
+        long bit = 1L << dayOfYear;
+        if ((restBits[index] & bit) != 0) {
+            return REST;
+        }
+        if ((workBits[index] & bit) != 0) {
+            return WORK;
+        }
+        return NORMAL;
+    }
+
+    /**
+     * 是否为工作日: 休为false, 班为true, 其余周一至周五为true
+     * 没有该年数据时只按星期判断
+     *
+     * @param year  公历年
+     * @param month 公历月, 1~12
+     * @param day   公历日
+     * @return
+     */
+    public boolean isWorkday(int year, int month, int day) {
+        int rest = getRest(year, month, day);
+        if (rest != NORMAL) {
+            return rest == WORK;
+        }
+        /** 1970年1月1日为周四, 周日为0 */
+        int week = ((DateUtils.toEpochDay(year, month, day) + 4) % 7 + 7) % 7;
+        return week != 0 && week != 6;
+    }
+}
@@ -13,8 +13,12 @@ import com.dsw.calendar.component.CircleMonthView;
 import com.dsw.calendar.component.MonthView;
 import com.dsw.calendar.component.WeekView;
 import com.dsw.calendar.entity.CalendarInfo;
+import com.dsw.calendar.entity.MonthDataSource;
+import com.dsw.calendar.entity.RecurrenceRule;
+import com.dsw.calendar.entity.SpanEvent;
 import com.dsw.calendar.theme.IDayTheme;
 import com.dsw.calendar.theme.IWeekTheme;
+import com.dsw.calendar.utils.WorkdayCalendar;
 
 import java.util.List;
 
@@ -73,6 +77,54 @@ public class ADCircleCalendarView extends LinearLayout implements View.OnClickLi
         textViewMonth.setText((circleMonthView.getSelMonth() + 1)+"月");
     }
 
+    public void addCalendarInfo(CalendarInfo calendarInfo){
+        circleMonthView.addCalendarInfo(calendarInfo);
+    }
+
+    public void addCalendarInfos(List<CalendarInfo> calendarInfos){
+        circleMonthView.addCalendarInfos(calendarInfos);
+    }
+
+    public void updateCalendarInfo(CalendarInfo calendarInfo){
+        circleMonthView.updateCalendarInfo(calendarInfo);
+    }
+
+    public void updateCalendarInfos(List<CalendarInfo> calendarInfos){
+        circleMonthView.updateCalendarInfos(calendarInfos);
+    }
+
+    public void removeCalendarInfo(CalendarInfo calendarInfo){
+        circleMonthView.removeCalendarInfo(calendarInfo);
+    }
+
+    public void removeCalendarInfos(List<CalendarInfo> calendarInfos){
+        circleMonthView.removeCalendarInfos(calendarInfos);
+    }
+
+    public void setMonthDataSource(MonthDataSource dataSource){
+        circleMonthView.setMonthDataSource(dataSource);
+    }
+
+    public void setSpanEvents(List<SpanEvent> spanEvents){
+        circleMonthView.setSpanEvents(spanEvents);
+    }
+
+    public void setRecurrenceRules(List<RecurrenceRule> rules){
+        circleMonthView.setRecurrenceRules(rules);
+    }
+
+    public void setWorkdayCalendar(WorkdayCalendar calendar){
+        circleMonthView.setWorkdayCalendar(calendar);
+    }
+
+    public void setTileCacheEnabled(boolean enabled){
+        circleMonthView.setTileCacheEnabled(enabled);
+    }
+
+    public void setTileCacheUsePicture(boolean usePicture){
+        circleMonthView.setTileCacheUsePicture(usePicture);
+    }
+
     public void setDayTheme(IDayTheme theme){
         circleMonthView.setTheme(theme);
     }
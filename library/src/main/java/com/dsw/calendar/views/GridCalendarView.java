@@ -12,8 +12,12 @@ import com.dsw.calendar.component.GridMonthView;
 import com.dsw.calendar.component.MonthView;
 import com.dsw.calendar.component.WeekView;
 import com.dsw.calendar.entity.CalendarInfo;
+import com.dsw.calendar.entity.MonthDataSource;
+import com.dsw.calendar.entity.RecurrenceRule;
+import com.dsw.calendar.entity.SpanEvent;
 import com.dsw.calendar.theme.IDayTheme;
 import com.dsw.calendar.theme.IWeekTheme;
+import com.dsw.calendar.utils.WorkdayCalendar;
 
 import java.util.List;
 
@@ -88,6 +92,99 @@ public class GridCalendarView extends LinearLayout implements View.OnClickListen
         textViewMonth.setText((gridMonthView.getSelMonth() + 1) + "月");
     }
 
+    /**
+     * 新增事务, 只重绘受影响的日期格子
+     *
+     * @param calendarInfo
+     */
+    public void addCalendarInfo(CalendarInfo calendarInfo) {
+        gridMonthView.addCalendarInfo(calendarInfo);
+    }
+
+    public void addCalendarInfos(List<CalendarInfo> calendarInfos) {
+        gridMonthView.addCalendarInfos(calendarInfos);
+    }
+
+    /**
+     * 更新事务, 替换同一日期原有的全部事务
+     *
+     * @param calendarInfo
+     */
+    public void updateCalendarInfo(CalendarInfo calendarInfo) {
+        gridMonthView.updateCalendarInfo(calendarInfo);
+    }
+
+    public void updateCalendarInfos(List<CalendarInfo> calendarInfos) {
+        gridMonthView.updateCalendarInfos(calendarInfos);
+    }
+
+    /**
+     * 删除同一日期上描述相同的事务
+     *
+     * @param calendarInfo
+     */
+    public void removeCalendarInfo(CalendarInfo calendarInfo) {
+        gridMonthView.removeCalendarInfo(calendarInfo);
+    }
+
+    public void removeCalendarInfos(List<CalendarInfo> calendarInfos) {
+        gridMonthView.removeCalendarInfos(calendarInfos);
+    }
+
+    /**
+     * 设置按月拉取的数据源, 切换月份时按需载入
+     *
+     * @param dataSource
+     */
+    public void setMonthDataSource(MonthDataSource dataSource) {
+        gridMonthView.setMonthDataSource(dataSource);
+    }
+
+    /**
+     * 设置跨天事务, 按周绘制成连续的横条
+     *
+     * @param spanEvents
+     */
+    public void setSpanEvents(List<SpanEvent> spanEvents) {
+        gridMonthView.setSpanEvents(spanEvents);
+    }
+
+    /**
+     * 设置重复事务规则, 绘制时按月展开
+     *
+     * @param rules
+     */
+    public void setRecurrenceRules(List<RecurrenceRule> rules) {
+        gridMonthView.setRecurrenceRules(rules);
+    }
+
+    /**
+     * 设置法定节假日、调休上班日数据, 为null时只绘制事务中的休、班标志
+     *
+     * @param calendar
+     */
+    public void setWorkdayCalendar(WorkdayCalendar calendar) {
+        gridMonthView.setWorkdayCalendar(calendar);
+    }
+
+    /**
+     * 滑动动画时是否把月份绘制成贴图, 默认使用; 内存紧张时可以关闭
+     *
+     * @param enabled
+     */
+    public void setTileCacheEnabled(boolean enabled) {
+        gridMonthView.setTileCacheEnabled(enabled);
+    }
+
+    /**
+     * 月份贴图是否录制为绘制指令(Picture), 占用内存较少; 默认绘制到Bitmap
+     *
+     * @param usePicture
+     */
+    public void setTileCacheUsePicture(boolean usePicture) {
+        gridMonthView.setTileCacheUsePicture(usePicture);
+    }
+
     /**
      * 设置日主题
      *
@@ -0,0 +1,104 @@
+package com.dsw.calendar.component;
+
+import com.dsw.calendar.entity.CalendarSnapshot;
+import com.dsw.calendar.entity.MonthEvents;
+import com.dsw.calendar.entity.RecurrenceRule;
+import com.dsw.calendar.entity.RecurrenceSet;
+import com.dsw.calendar.theme.DefaultDayTheme;
+import com.dsw.calendar.theme.IDayTheme;
+import com.dsw.calendar.utils.DayLabelCache;
+import com.dsw.calendar.utils.WorkdayCalendar;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 滑动时每帧绘制路径中的查询(布局、日期号、标签、事务、休班、主题)不创建任何对象
+ *
+ * Canvas、Paint在本地单元测试中不可用, 这里按MonthView.drawDate与各子类的顺序逐格执行同样的查询,
+ * 用线程分配计数验证缓存命中后的稳定状态不分配内存。
+ * 只覆盖这些纯Java的查询, 不执行MonthView.drawDate本身, 也不覆盖Canvas、Paint的调用及其中的分配。
+ */
+public class DrawAllocationTest {
+    private static final int FRAMES = 1000;
+
+    /** 滑动时绘制的上一月、选中月、下一月, 来回翻页 */
+    private static final int[][] MONTHS = { { 2024, 0 }, { 2024, 1 }, { 2024, 2 }, { 2024, 3 } };
+
+    private final RecurrenceSet recurrenceSet = new RecurrenceSet();
+    private final WorkdayCalendar workdays = WorkdayCalendar.getDefault();
+    private final IDayTheme theme = new DefaultDayTheme();
+    private int sink;
+
+    public DrawAllocationTest() {
+        List<RecurrenceRule> rules = new ArrayList<RecurrenceRule>();
+        rules.add(new RecurrenceRule(RecurrenceRule.WEEKLY, 2024, 1, 5, "例会"));
+        rules.add(new RecurrenceRule(RecurrenceRule.MONTHLY, 2024, 1, 1, "还款"));
+        recurrenceSet.setRules(rules);
+    }
+
+    @Test
+    public void swipeFramesAllocateNothing() throws Exception {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+
+        /** 第一轮填充各级缓存 */
+        for (int frame = 0; frame < MONTHS.length; frame++) {
+            drawFrame(frame);
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int frame = 0; frame < FRAMES; frame++) {
+            drawFrame(frame);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        /** 允许读取计数器本身的少量分配, 但每帧不能有任何分配 */
+        assertTrue("allocated " + allocated + " bytes in " + FRAMES + " frames", allocated < FRAMES);
+        assertTrue(sink != 0);
+    }
+
+    @Test
+    public void dayStringsAreShared() {
+        for (int day = 1; day <= 31; day++) {
+            assertEquals(String.valueOf(day), DayNumbers.get(day));
+            assertSame(DayNumbers.get(day), DayNumbers.get(day));
+        }
+    }
+
+    /**
+     * 一帧: 上一月、下一月、选中月, 选中月在MONTHS中来回移动
+     */
+    private void drawFrame(int frame) {
+        int selected = 1 + frame % (MONTHS.length - 2);
+        drawMonth(MONTHS[selected - 1][0], MONTHS[selected - 1][1]);
+        drawMonth(MONTHS[selected + 1][0], MONTHS[selected + 1][1]);
+        drawMonth(MONTHS[selected][0], MONTHS[selected][1]);
+    }
+
+    private void drawMonth(int year, int month) {
+        MonthLayout layout = MonthLayout.of(year, month);
+        MonthEvents events = recurrenceSet.apply(CalendarSnapshot.EMPTY.get(year, month + 1), year, month + 1);
+        sink += theme.colorLine() + layout.getRows();
+        for (int day = 1; day <= layout.getMonthDays(); day++) {
+            int column = layout.getColumn(day);
+            int row = layout.getRow(day);
+            String des = events.getDes(day);
+            int rest = events.getRest(day);
+            if (rest == 0) {
+                rest = workdays.getRest(year, month + 1, day);
+            }
+            sink += column + row + rest + events.getCount(day) + DayNumbers.get(day).length()
+                    + DayLabelCache.getLabel(year, month + 1, day).length()
+                    + (des == null ? 0 : des.length()) + theme.colorWeekday() + theme.colorDecor();
+        }
+    }
+}
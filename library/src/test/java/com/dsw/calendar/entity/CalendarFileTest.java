@@ -0,0 +1,113 @@
+package com.dsw.calendar.entity;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * CalendarFile的写入、映射与按月读取的往返测试
+ */
+public class CalendarFileTest {
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("calendar", ".bin");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+        new File(file.getPath() + ".tmp").delete();
+    }
+
+    @Test
+    public void roundTripKeepsOrderRestAndNonAsciiDescriptions() throws IOException {
+        List<CalendarInfo> calendarInfos = new ArrayList<CalendarInfo>();
+        calendarInfos.add(new CalendarInfo(2016, 8, 7, "¥1280起", 1));
+        calendarInfos.add(new CalendarInfo(2016, 7, 31, "七月末"));
+        calendarInfos.add(null);
+        calendarInfos.add(new CalendarInfo(2016, 8, 7, "满房 😀", 2));
+        calendarInfos.add(new CalendarInfo(2016, 8, 7, null));
+        calendarInfos.add(new CalendarInfo(2016, 8, 31, "¥1280起"));
+        calendarInfos.add(new CalendarInfo(2016, 10, 1, ""));
+        CalendarFile.write(file, calendarInfos);
+
+        CalendarFile calendarFile = CalendarFile.open(file);
+        assertEquals(4, calendarFile.getDateCount());
+
+        List<CalendarInfo> august = calendarFile.loadMonth(2016, 8);
+        assertEquals(4, august.size());
+        assertInfo(august.get(0), 2016, 8, 7, "¥1280起", 1);
+        assertInfo(august.get(1), 2016, 8, 7, "满房 😀", 2);
+        assertInfo(august.get(2), 2016, 8, 7, null, 0);
+        assertInfo(august.get(3), 2016, 8, 31, "¥1280起", 0);
+
+        List<CalendarInfo> july = calendarFile.loadMonth(2016, 7);
+        assertEquals(1, july.size());
+        assertInfo(july.get(0), 2016, 7, 31, "七月末", 0);
+
+        List<CalendarInfo> october = calendarFile.loadMonth(2016, 10);
+        assertEquals(1, october.size());
+        assertInfo(october.get(0), 2016, 10, 1, "", 0);
+
+        /** 文件范围内外的空月份 */
+        assertTrue(calendarFile.loadMonth(2016, 9).isEmpty());
+        assertTrue(calendarFile.loadMonth(2015, 12).isEmpty());
+        assertTrue(calendarFile.loadMonth(2017, 1).isEmpty());
+    }
+
+    @Test
+    public void emptyListWritesEmptyFile() throws IOException {
+        CalendarFile.write(file, new ArrayList<CalendarInfo>());
+        CalendarFile calendarFile = CalendarFile.open(file);
+        assertEquals(0, calendarFile.getDateCount());
+        assertTrue(calendarFile.loadMonth(2016, 8).isEmpty());
+    }
+
+    @Test
+    public void overwriteReplacesFileAndKeepsOldMapping() throws IOException {
+        List<CalendarInfo> first = new ArrayList<CalendarInfo>();
+        first.add(new CalendarInfo(2016, 8, 7, "旧"));
+        CalendarFile.write(file, first);
+        CalendarFile old = CalendarFile.open(file);
+
+        List<CalendarInfo> second = new ArrayList<CalendarInfo>();
+        second.add(new CalendarInfo(2016, 8, 8, "新的描述"));
+        second.add(new CalendarInfo(2016, 9, 1, "新的描述"));
+        CalendarFile.write(file, second);
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        assertInfo(old.loadMonth(2016, 8).get(0), 2016, 8, 7, "旧", 0);
+        CalendarFile replaced = CalendarFile.open(file);
+        assertEquals(2, replaced.getDateCount());
+        assertInfo(replaced.loadMonth(2016, 8).get(0), 2016, 8, 8, "新的描述", 0);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOtherFiles() throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write("not a calendar file".getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+        CalendarFile.open(file);
+    }
+
+    private static void assertInfo(CalendarInfo calendarInfo, int year, int month, int day, String des, int rest) {
+        assertEquals(year, calendarInfo.year);
+        assertEquals(month, calendarInfo.month);
+        assertEquals(day, calendarInfo.day);
+        assertEquals(des, calendarInfo.des);
+        assertEquals(rest, calendarInfo.rest);
+    }
+}
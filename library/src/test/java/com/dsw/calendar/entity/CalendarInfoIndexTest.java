@@ -0,0 +1,85 @@
+package com.dsw.calendar.entity;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * CalendarInfoIndex与HashMap的随机对照, 重点覆盖删除时的后移填补
+ */
+public class CalendarInfoIndexTest {
+
+    @Test
+    public void randomOperationsMatchHashMap() {
+        Random random = new Random(20160807);
+        for (int round = 0; round < 20; round++) {
+            /** 初始容量很小、键的范围很窄, 让探测链足够长并频繁扩容 */
+            CalendarInfoIndex index = new CalendarInfoIndex(1);
+            Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+            int range = 16 + random.nextInt(200);
+            for (int op = 0; op < 20000; op++) {
+                int date = 20160101 + random.nextInt(range);
+                int action = random.nextInt(3);
+                if (action == 0) {
+                    int value = random.nextInt(1000);
+                    index.put(date, value);
+                    expected.put(date, value);
+                } else if (action == 1) {
+                    Integer old = expected.remove(date);
+                    assertEquals(old == null ? CalendarInfoIndex.NONE : old.intValue(), index.remove(date));
+                } else {
+                    Integer value = expected.get(date);
+                    assertEquals(value == null ? CalendarInfoIndex.NONE : value.intValue(), index.get(date));
+                }
+                assertEquals(expected.size(), index.size());
+            }
+            /** 最后逐个核对全部键, 包括已删除的 */
+            for (int date = 20160101; date < 20160101 + range; date++) {
+                Integer value = expected.get(date);
+                assertEquals(value == null ? CalendarInfoIndex.NONE : value.intValue(), index.get(date));
+            }
+        }
+    }
+
+    @Test
+    public void removeEverythingLeavesEmptyIndex() {
+        Random random = new Random(7);
+        CalendarInfoIndex index = new CalendarInfoIndex(4);
+        int[] dates = new int[500];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = 20000101 + random.nextInt(1000000);
+            index.put(dates[i], i);
+        }
+        for (int date : dates) {
+            index.remove(date);
+            assertEquals(CalendarInfoIndex.NONE, index.get(date));
+        }
+        assertEquals(0, index.size());
+        assertEquals(CalendarInfoIndex.NONE, index.remove(dates[0]));
+    }
+
+    @Test
+    public void monthKeysAreSortedAndUnique() {
+        CalendarInfoIndex index = new CalendarInfoIndex(8);
+        TreeSet<Integer> months = new TreeSet<Integer>();
+        Random random = new Random(3);
+        for (int i = 0; i < 300; i++) {
+            int year = 2015 + random.nextInt(3);
+            int month = 1 + random.nextInt(12);
+            int day = 1 + random.nextInt(28);
+            index.put(CalendarInfoIndex.packDate(year, month, day), i);
+            months.add(year * 100 + month);
+        }
+        int[] keys = index.monthKeys();
+        assertEquals(months.size(), keys.length);
+        int i = 0;
+        for (int month : months) {
+            assertEquals(month, keys[i++]);
+        }
+    }
+}
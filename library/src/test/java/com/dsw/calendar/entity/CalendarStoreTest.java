@@ -0,0 +1,75 @@
+package com.dsw.calendar.entity;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * CalendarStore的增量修改在调用时复制事务, 调用方随后修改或复用传入的对象不影响结果
+ */
+public class CalendarStoreTest {
+    /**
+     * 先攒下任务, 模拟后台线程还没来得及执行
+     */
+    private final List<Runnable> pending = new ArrayList<Runnable>();
+    private final CalendarStore store = new CalendarStore(new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            pending.add(command);
+        }
+    });
+
+    private void runPending() {
+        for (Runnable runnable : pending) {
+            runnable.run();
+        }
+        pending.clear();
+    }
+
+    @Test
+    public void reusedCalendarInfoIsCopiedAtCallTime() {
+        CalendarInfo calendarInfo = new CalendarInfo(2016, 8, 7, "¥100");
+        store.addCalendarInfo(calendarInfo);
+        calendarInfo.day = 8;
+        calendarInfo.des = "¥200";
+        store.addCalendarInfo(calendarInfo);
+        calendarInfo.day = 9;
+        calendarInfo.des = "满房";
+        calendarInfo.rest = 1;
+        store.updateCalendarInfo(calendarInfo);
+        calendarInfo.day = 7;
+        calendarInfo.des = null;
+        runPending();
+
+        MonthEvents events = store.getSnapshot().get(2016, 8);
+        assertEquals("¥100", events.getDes(7));
+        assertEquals("¥200", events.getDes(8));
+        assertEquals("满房", events.getDes(9));
+        assertEquals(1, events.getRest(9));
+    }
+
+    @Test
+    public void reusedListIsCopiedAtCallTime() {
+        List<CalendarInfo> calendarInfos = new ArrayList<CalendarInfo>();
+        calendarInfos.add(new CalendarInfo(2016, 8, 7, "¥100"));
+        calendarInfos.add(null);
+        store.addCalendarInfos(calendarInfos);
+        calendarInfos.clear();
+        calendarInfos.add(new CalendarInfo(2016, 8, 7, "¥100"));
+        store.removeCalendarInfos(calendarInfos);
+        calendarInfos.clear();
+        calendarInfos.add(new CalendarInfo(2016, 8, 8, "¥200"));
+        store.addCalendarInfos(calendarInfos);
+        calendarInfos.clear();
+        store.addCalendarInfos(null);
+        runPending();
+
+        MonthEvents events = store.getSnapshot().get(2016, 8);
+        assertEquals(0, events.getCount(7));
+        assertEquals("¥200", events.getDes(8));
+    }
+}
@@ -0,0 +1,70 @@
+package com.dsw.calendar.entity;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * DesPool的引用计数: 事务删除、月份淘汰和整体替换后不再被引用的描述要移出池
+ */
+public class DesPoolTest {
+
+    @Test
+    public void removedMonthsReleaseDescriptions() {
+        DesPool pool = new DesPool();
+        CalendarColumns columns = new CalendarColumns(0, pool);
+        for (int month = 1; month <= 12; month++) {
+            for (int day = 1; day <= 28; day++) {
+                columns.add(new CalendarInfo(2016, month, day, "¥" + (month * 100 + day)));
+            }
+            columns.add(new CalendarInfo(2016, month, 1, "共用"));
+        }
+        assertEquals(1 + 12 * 28 + 1, pool.size());
+        for (int month = 1; month <= 11; month++) {
+            columns.removeMonth(2016, month);
+        }
+        assertEquals(1 + 28 + 1, pool.size());
+        assertEquals(-1, pool.find("¥101"));
+        assertTrue(pool.find("共用") > 0);
+        columns.removeMonth(2016, 12);
+        assertEquals(1, pool.size());
+        assertEquals(-1, pool.find("共用"));
+    }
+
+    @Test
+    public void freedIdsAreReused() {
+        DesPool pool = new DesPool();
+        CalendarColumns columns = new CalendarColumns(0, pool);
+        for (int round = 0; round < 1000; round++) {
+            columns.add(new CalendarInfo(2016, 8, 7, "描述" + round));
+            int id = columns.desId(columns.head(CalendarInfoIndex.packDate(2016, 8, 7)));
+            assertTrue(id < 3);
+            assertEquals("描述" + round, pool.get(id));
+            columns.removeDay(CalendarInfoIndex.packDate(2016, 8, 7));
+        }
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void replacedColumnsKeepSharedLabels() {
+        DesPool pool = new DesPool();
+        List<CalendarInfo> first = new ArrayList<CalendarInfo>();
+        first.add(new CalendarInfo(2016, 8, 7, "共用"));
+        first.add(new CalendarInfo(2016, 8, 8, "旧"));
+        CalendarColumns old = CalendarColumns.build(first, pool);
+        DesLabel shared = pool.getLabel(pool.find("共用"));
+
+        List<CalendarInfo> second = new ArrayList<CalendarInfo>();
+        second.add(new CalendarInfo(2016, 9, 1, "共用"));
+        second.add(new CalendarInfo(2016, 9, 2, "新"));
+        CalendarColumns.build(second, pool);
+        old.releaseDes();
+
+        assertEquals(-1, pool.find("旧"));
+        assertSame(shared, pool.getLabel(pool.find("共用")));
+        assertEquals(3, pool.size());
+    }
+}
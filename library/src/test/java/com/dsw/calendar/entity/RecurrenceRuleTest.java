@@ -0,0 +1,135 @@
+package com.dsw.calendar.entity;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * RecurrenceRule.expand与逐次推算结果的对照, 覆盖各频率的COUNT、UNTIL、INTERVAL以及月末、闰日开始的规则
+ */
+public class RecurrenceRuleTest {
+    private static final int FIRST_YEAR = 2015;
+    private static final int LAST_YEAR = 2026;
+
+    private static final int[][] STARTS = {
+            {2016, 8, 7},
+            {2016, 1, 31},
+            {2015, 12, 31},
+            {2016, 2, 29},
+            {2016, 4, 30},
+    };
+    private static final int[] FREQS = {
+            RecurrenceRule.DAILY, RecurrenceRule.WEEKLY, RecurrenceRule.MONTHLY, RecurrenceRule.YEARLY
+    };
+
+    @Test
+    public void matchesStepByStepExpansion() {
+        int[] intervals = {1, 2, 3};
+        int[] counts = {0, 1, 5, 13};
+        int[][] untils = {null, {2016, 12, 30}, {2020, 2, 29}, {2015, 12, 31}};
+        for (int freq : FREQS) {
+            for (int[] start : STARTS) {
+                for (int interval : intervals) {
+                    for (int count : counts) {
+                        for (int[] until : untils) {
+                            RecurrenceRule rule = new RecurrenceRule(freq, start[0], start[1], start[2], "规则")
+                                    .withInterval(interval).withCount(count);
+                            if (until != null) {
+                                rule = rule.withUntil(until[0], until[1], until[2]);
+                            }
+                            assertSameMasks(rule, freq, start, interval, count, until);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void monthlySkipsMonthsWithoutTheDay() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceRule.MONTHLY, 2016, 1, 31, "月末").withCount(3);
+        assertEquals(1 << 31, rule.expand(2016, 1));
+        assertEquals(0, rule.expand(2016, 2));
+        assertEquals(1 << 31, rule.expand(2016, 3));
+        assertEquals(0, rule.expand(2016, 4));
+        assertEquals(1 << 31, rule.expand(2016, 5));
+        assertEquals(0, rule.expand(2016, 7));
+    }
+
+    @Test
+    public void yearlyLeapDayOnlyInLeapYears() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceRule.YEARLY, 2016, 2, 29, "闰日").withCount(2);
+        assertEquals(1 << 29, rule.expand(2016, 2));
+        assertEquals(0, rule.expand(2017, 2));
+        assertEquals(1 << 29, rule.expand(2020, 2));
+        assertEquals(0, rule.expand(2024, 2));
+        rule = new RecurrenceRule(RecurrenceRule.YEARLY, 2096, 2, 29, "闰日");
+        assertEquals(0, rule.expand(2100, 2));
+        assertEquals(1 << 29, rule.expand(2104, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveInterval() {
+        new RecurrenceRule(RecurrenceRule.DAILY, 2016, 8, 7, null).withInterval(0);
+    }
+
+    private static void assertSameMasks(RecurrenceRule rule, int freq, int[] start, int interval, int count,
+                                        int[] until) {
+        int[] expected = expectedMasks(freq, start, interval, count, until);
+        for (int year = FIRST_YEAR; year <= LAST_YEAR; year++) {
+            for (int month = 1; month <= 12; month++) {
+                int index = (year - FIRST_YEAR) * 12 + month - 1;
+                if (expected[index] != rule.expand(year, month)) {
+                    fail("freq=" + freq + " start=" + start[0] + "-" + start[1] + "-" + start[2]
+                            + " interval=" + interval + " count=" + count
+                            + " until=" + (until == null ? "-" : until[0] + "-" + until[1] + "-" + until[2])
+                            + " month=" + year + "-" + month
+                            + " expected=" + Integer.toBinaryString(expected[index])
+                            + " actual=" + Integer.toBinaryString(rule.expand(year, month)));
+                }
+            }
+        }
+    }
+
+    /**
+     * 从开始日期逐次推算每一次重复, 跳过不存在的日期且不计入次数
+     */
+    private static int[] expectedMasks(int freq, int[] start, int interval, int count, int[] until) {
+        int[] masks = new int[(LAST_YEAR - FIRST_YEAR + 1) * 12];
+        int untilDate = until == null ? Integer.MAX_VALUE : until[0] * 10000 + until[1] * 100 + until[2];
+        int emitted = 0;
+        for (int k = 0; count == 0 || emitted < count; k++) {
+            GregorianCalendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+            calendar.clear();
+            if (freq == RecurrenceRule.DAILY || freq == RecurrenceRule.WEEKLY) {
+                calendar.set(start[0], start[1] - 1, start[2]);
+                calendar.add(Calendar.DAY_OF_MONTH, k * interval * (freq == RecurrenceRule.WEEKLY ? 7 : 1));
+            } else {
+                calendar.set(start[0], start[1] - 1, 1);
+                calendar.add(freq == RecurrenceRule.MONTHLY ? Calendar.MONTH : Calendar.YEAR, k * interval);
+                if (start[2] > calendar.getActualMaximum(Calendar.DAY_OF_MONTH)) {
+                    if (calendar.get(Calendar.YEAR) > LAST_YEAR) {
+                        break;
+                    }
+                    continue;
+                }
+                calendar.set(Calendar.DAY_OF_MONTH, start[2]);
+            }
+            int year = calendar.get(Calendar.YEAR);
+            int month = calendar.get(Calendar.MONTH) + 1;
+            int day = calendar.get(Calendar.DAY_OF_MONTH);
+            if (year > LAST_YEAR || year * 10000 + month * 100 + day > untilDate) {
+                break;
+            }
+            if (year >= FIRST_YEAR) {
+                masks[(year - FIRST_YEAR) * 12 + month - 1] |= 1 << day;
+            }
+            emitted++;
+        }
+        return masks;
+    }
+}
@@ -0,0 +1,132 @@
+package com.dsw.calendar.entity;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * SpanIndex.query与逐个比较的结果对照, 包括相交的区间、包含整个查询区间的长事务和单日事务
+ */
+public class SpanIndexTest {
+
+    @Test
+    public void queryMatchesBruteForce() {
+        Random random = new Random(20160807);
+        for (int round = 0; round < 200; round++) {
+            int count = random.nextInt(300);
+            List<SpanEvent> events = new ArrayList<SpanEvent>();
+            for (int i = 0; i < count; i++) {
+                events.add(randomSpan(random, i));
+            }
+            if (count > 0 && random.nextBoolean()) {
+                events.add(random.nextInt(events.size()), null);
+            }
+            SpanIndex index = SpanIndex.build(events);
+            List<SpanEvent> sorted = sortedCopy(events);
+            assertEquals(sorted.size(), index.size());
+
+            List<SpanEvent> actual = new ArrayList<SpanEvent>();
+            for (int q = 0; q < 50; q++) {
+                int from = randomDate(random);
+                int to = random.nextInt(4) == 0 ? from : randomDate(random);
+                if (to < from) {
+                    int t = from;
+                    from = to;
+                    to = t;
+                }
+                actual.clear();
+                index.query(from, to, actual);
+                List<SpanEvent> expected = new ArrayList<SpanEvent>();
+                for (SpanEvent span : sorted) {
+                    if (span.getStart() <= to && span.getEnd() >= from) {
+                        expected.add(span);
+                    }
+                }
+                assertEquals("query " + from + "~" + to, expected.size(), actual.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    assertSame(expected.get(i), actual.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void emptyIndexReturnsNothing() {
+        assertSame(SpanIndex.EMPTY, SpanIndex.build(null));
+        assertSame(SpanIndex.EMPTY, SpanIndex.build(new ArrayList<SpanEvent>()));
+        List<SpanEvent> out = new ArrayList<SpanEvent>();
+        SpanIndex.EMPTY.query(20160801, 20160831, out);
+        assertTrue(out.isEmpty());
+    }
+
+    @Test
+    public void boundariesAreInclusive() {
+        List<SpanEvent> events = new ArrayList<SpanEvent>();
+        SpanEvent july = new SpanEvent(2016, 7, 1, 2016, 7, 31, "七月");
+        SpanEvent crossing = new SpanEvent(2016, 7, 31, 2016, 8, 1, "跨月");
+        SpanEvent september = new SpanEvent(2016, 9, 1, 2016, 9, 1, "九月");
+        events.add(september);
+        events.add(crossing);
+        events.add(july);
+        SpanIndex index = SpanIndex.build(events);
+        List<SpanEvent> out = new ArrayList<SpanEvent>();
+        index.query(20160801, 20160831, out);
+        assertEquals(1, out.size());
+        assertSame(crossing, out.get(0));
+        out.clear();
+        index.query(20160731, 20160901, out);
+        assertEquals(3, out.size());
+        assertSame(july, out.get(0));
+        assertSame(crossing, out.get(1));
+        assertSame(september, out.get(2));
+    }
+
+    private static SpanEvent randomSpan(Random random, int i) {
+        int start = randomDate(random);
+        int length = random.nextInt(5) == 0 ? random.nextInt(400) : random.nextInt(10);
+        int end = addDays(start, length);
+        return new SpanEvent(start / 10000, start / 100 % 100, start % 100,
+                end / 10000, end / 100 % 100, end % 100, "事务" + i);
+    }
+
+    private static int randomDate(Random random) {
+        return addDays(20150101, random.nextInt(3 * 365));
+    }
+
+    private static int addDays(int date, int days) {
+        GregorianCalendar calendar = new GregorianCalendar(date / 10000, date / 100 % 100 - 1, date % 100);
+        calendar.add(Calendar.DAY_OF_MONTH, days);
+        return CalendarInfoIndex.packDate(calendar.get(Calendar.YEAR),
+                calendar.get(Calendar.MONTH) + 1, calendar.get(Calendar.DAY_OF_MONTH));
+    }
+
+    /**
+     * 按开始、结束日期稳定排序, 与SpanIndex.build的顺序一致
+     */
+    private static List<SpanEvent> sortedCopy(List<SpanEvent> events) {
+        List<SpanEvent> sorted = new ArrayList<SpanEvent>();
+        for (SpanEvent span : events) {
+            if (span != null) {
+                sorted.add(span);
+            }
+        }
+        Collections.sort(sorted, new Comparator<SpanEvent>() {
+            @Override
+            public int compare(SpanEvent lhs, SpanEvent rhs) {
+                if (lhs.getStart() != rhs.getStart()) {
+                    return lhs.getStart() < rhs.getStart() ? -1 : 1;
+                }
+                return lhs.getEnd() < rhs.getEnd() ? -1 : (lhs.getEnd() == rhs.getEnd() ? 0 : 1);
+            }
+        });
+        return sorted;
+    }
+}
@@ -0,0 +1,63 @@
+package com.dsw.calendar.utils;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+
+import static org.junit.Assert.*;
+
+/**
+ * DayLabelCache的农历节日: 闰月中与节日同月同日的日期不显示节日
+ */
+public class DayLabelCacheTest {
+
+    @Test
+    public void leapMonthHasNoFestival() {
+        assertEquals(5, LunarEngine.leapMonth(2028));
+        int dragonBoat = DateUtils.fromEpochDay(LunarEngine.toEpochDay(2028, 5, false, 5));
+        int leapDragonBoat = DateUtils.fromEpochDay(LunarEngine.toEpochDay(2028, 5, true, 5));
+        assertEquals("端午节", label(dragonBoat));
+        assertFalse("端午节".equals(label(leapDragonBoat)));
+        assertEquals("闰五月", CalendarUtil.getLunarLabel(LunarEngine.toLunarOfEpochDay(
+                LunarEngine.toEpochDay(2028, 5, true, 1))));
+    }
+
+    @Test
+    public void leapMonthFirstDayIsNotHoliday() {
+        /** 2028年6月23日为闰五月初一 */
+        assertEquals(20280623, DateUtils.fromEpochDay(LunarEngine.toEpochDay(2028, 5, true, 1)));
+        assertEquals("闰五月", label(20280623));
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(2028, Calendar.JUNE, 23);
+        assertEquals("", new CalendarUtil(calendar).getHolidayMsg());
+        /** 2028年5月24日为五月初一, 5月28日为端午节 */
+        calendar.set(2028, Calendar.MAY, 24);
+        assertEquals("", new CalendarUtil(calendar).getHolidayMsg());
+        calendar.set(2028, Calendar.MAY, 28);
+        assertEquals("端午节", new CalendarUtil(calendar).getHolidayMsg());
+    }
+
+    @Test
+    public void festivalsOnlyInRegularMonths() {
+        String[] festivals = {"春节", "元宵节", "端午节", "七夕", "中秋节", "重阳节", "腊八", "除夕"};
+        for (int year = 1901; year < 2100; year++) {
+            int leap = LunarEngine.leapMonth(year);
+            if (leap == 0) {
+                continue;
+            }
+            int first = LunarEngine.toEpochDay(year, leap, true, 1);
+            int days = LunarEngine.monthDays(year, leap, true);
+            for (int epochDay = first; epochDay < first + days; epochDay++) {
+                String label = label(DateUtils.fromEpochDay(epochDay));
+                for (String festival : festivals) {
+                    assertFalse(year + " leap " + leap + ": " + label, festival.equals(label));
+                }
+            }
+        }
+    }
+
+    private static String label(int date) {
+        return DayLabelCache.getLabel(date / 10000, date / 100 % 100, date % 100);
+    }
+}
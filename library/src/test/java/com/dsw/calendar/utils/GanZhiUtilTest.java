@@ -0,0 +1,62 @@
+package com.dsw.calendar.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * GanZhiUtil的整月批量计算与逐日计算的对照, 以及已知日期的干支
+ */
+public class GanZhiUtilTest {
+
+    @Test
+    public void pillarMonthMatchesPerDayPillars() {
+        int[] out = new int[31];
+        for (int year = 1795; year <= 2305; year++) {
+            for (int month = 1; month <= 12; month++) {
+                GanZhiUtil.toPillarMonth(year, month, out);
+                for (int day = 1; day <= SolarTermsUtil.daysInGregorianMonth(year, month); day++) {
+                    int epochDay = DateUtils.toEpochDay(year, month, day);
+                    int yearPillar = GanZhiUtil.yearPillar(epochDay);
+                    int monthPillar = GanZhiUtil.monthPillar(epochDay);
+                    String date = year + "-" + month + "-" + day;
+                    assertEquals(date, GanZhiUtil.dayPillar(epochDay), GanZhiUtil.getDayPillar(out[day - 1]));
+                    assertEquals(date, yearPillar < 0 ? 63 : yearPillar, GanZhiUtil.getYearPillar(out[day - 1]));
+                    assertEquals(date, monthPillar < 0 ? 63 : monthPillar, GanZhiUtil.getMonthPillar(out[day - 1]));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void knownDates() {
+        assertPillars(1949, 10, 1, "己丑", "癸酉", "甲子");
+        assertPillars(2000, 1, 1, "己卯", "丙子", "戊午");
+        assertPillars(1984, 2, 5, "甲子", "丙寅", "己巳");
+        /** 2024年立春为2月4日, 年柱、月柱在当天切换, 与春节无关 */
+        assertPillars(2024, 2, 3, "癸卯", "乙丑", "丁酉");
+        assertPillars(2024, 2, 4, "甲辰", "丙寅", "戊戌");
+        assertEquals("甲辰", GanZhiUtil.getName(GanZhiUtil.lunarYearPillar(2024)));
+        assertEquals("龙", GanZhiUtil.getAnimal(GanZhiUtil.lunarYearPillar(2024)));
+    }
+
+    @Test
+    public void outOfTermTableRange() {
+        int epochDay = DateUtils.toEpochDay(1700, 6, 1);
+        assertEquals(-1, GanZhiUtil.yearPillar(epochDay));
+        assertEquals(-1, GanZhiUtil.monthPillar(epochDay));
+        assertEquals("", GanZhiUtil.getName(-1));
+        int[] out = GanZhiUtil.toPillarMonth(1700, 6, new int[31]);
+        assertEquals(63, GanZhiUtil.getYearPillar(out[0]));
+        assertEquals(63, GanZhiUtil.getMonthPillar(out[0]));
+        assertEquals(GanZhiUtil.dayPillar(epochDay), GanZhiUtil.getDayPillar(out[0]));
+    }
+
+    private static void assertPillars(int year, int month, int day, String yearName, String monthName,
+                                      String dayName) {
+        int epochDay = DateUtils.toEpochDay(year, month, day);
+        assertEquals(yearName, GanZhiUtil.getName(GanZhiUtil.yearPillar(epochDay)));
+        assertEquals(monthName, GanZhiUtil.getName(GanZhiUtil.monthPillar(epochDay)));
+        assertEquals(dayName, GanZhiUtil.getName(GanZhiUtil.dayPillar(epochDay)));
+    }
+}
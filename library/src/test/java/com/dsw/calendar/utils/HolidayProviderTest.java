@@ -0,0 +1,153 @@
+package com.dsw.calendar.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+import static org.junit.Assert.*;
+
+/**
+ * HolidayProvider的内置节日与原GregorianUtil节日表的逐日对照, 以及规则文本的解析和倒数第几个星期几
+ */
+public class HolidayProviderTest {
+    /**
+     * 原GregorianUtil中的公历节日表, 下标为[月 - 1][日 - 1]
+     */
+    private static final String[][] GRE_FESTVIAL = {
+            // 一月
+            { "元旦", "", "", "", "", "", "", "", "", "", "", "", "", "", "", "",
+                    "", "", "", "", "", "", "", "", "", "", "", "", "", "", "" },
+            // 二月
+            { "", "", "", "", "", "", "", "", "", "", "", "", "", "情人节", "", "",
+                    "", "", "", "", "", "", "", "", "", "", "", "", "", "" },
+            // 三月
+            { "", "", "", "", "", "", "", "妇女节", "", "", "", "植树节", "", "", "",
+                    "", "", "", "", "", "", "", "", "", "", "", "", "", "", "",
+                    "" },
+            // 四月
+            { "愚人节", "", "", "", "", "", "", "", "", "", "", "", "", "", "", "",
+                    "", "", "", "", "", "", "", "", "", "", "", "", "", "", "" },
+            // 五月
+            { "劳动节", "", "", "青年节", "", "", "", "", "", "", "", "", "", "", "",
+                    "", "", "", "", "", "", "", "", "", "", "", "", "", "", "",
+                    "" },
+            // 六月
+            { "儿童节", "", "", "", "", "", "", "", "", "", "", "", "", "", "", "",
+                    "", "", "", "", "", "", "", "", "", "", "", "", "", "", "" },
+            // 七月
+            { "建党节", "", "", "", "", "", "", "", "", "", "", "", "", "", "", "",
+                    "", "", "", "", "", "", "", "", "", "", "", "", "", "", "" },
+            // 八月
+            { "建军节", "", "", "", "", "", "", "", "", "", "", "", "", "", "", "",
+                    "", "", "", "", "", "", "", "", "", "", "", "", "", "", "" },
+            // 九月
+            { "", "", "", "", "", "", "", "", "", "教师节", "", "", "", "", "", "",
+                    "", "", "", "", "", "", "", "", "", "", "", "", "", "", "" },
+            // 十月
+            { "国庆节", "", "", "", "", "", "", "", "", "", "", "", "", "", "", "",
+                    "", "", "", "", "", "", "", "", "", "", "", "", "", "", "" },
+            // 十一月
+            { "", "", "", "", "", "", "", "", "", "", "光棍节", "", "", "", "", "",
+                    "", "", "", "", "", "", "", "", "", "", "", "", "", "", "" },
+            // 十二月
+            { "艾滋病", "", "", "", "", "", "", "", "", "", "", "", "", "", "",
+                    "", "", "", "", "", "", "", "", "", "圣诞节", "", "", "", "",
+                    "", "" }, };
+
+    @Test
+    public void defaultMatchesOldTableOnEveryDay() {
+        HolidayProvider provider = HolidayProvider.getDefault();
+        GregorianCalendar calendar = new GregorianCalendar(1900, Calendar.JANUARY, 1);
+        while (calendar.get(Calendar.YEAR) <= 2100) {
+            int year = calendar.get(Calendar.YEAR);
+            int month = calendar.get(Calendar.MONTH) + 1;
+            int day = calendar.get(Calendar.DAY_OF_MONTH);
+            String holiday = provider.getHoliday(year, month, day);
+            String date = year + "-" + month + "-" + day;
+            /** 母亲节、父亲节是新增的浮动节日, 原表中没有 */
+            boolean sunday = calendar.get(Calendar.DAY_OF_WEEK) == Calendar.SUNDAY;
+            int nth = (day - 1) / 7 + 1;
+            if (sunday && month == 5 && nth == 2) {
+                assertEquals(date, "母亲节", holiday);
+            } else if (sunday && month == 6 && nth == 3) {
+                assertEquals(date, "父亲节", holiday);
+            } else {
+                assertEquals(date, GRE_FESTVIAL[month - 1][day - 1], holiday);
+            }
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+        }
+    }
+
+    @Test
+    public void negativeNthWeekdayCountsFromMonthEnd() throws IOException {
+        HolidayProvider provider = HolidayProvider.load(new StringReader(
+                "weekday 5 -1 1 阵亡将士纪念日\n"
+                + "weekday 3 -5 0 倒数第五个周日\n"
+                + "weekday 2 -4 6 倒数第四个周六\n"));
+        for (int year = 1901; year <= 2099; year++) {
+            assertRule(provider, year, 5, -1, Calendar.MONDAY, "阵亡将士纪念日");
+            assertRule(provider, year, 3, -5, Calendar.SUNDAY, "倒数第五个周日");
+            assertRule(provider, year, 2, -4, Calendar.SATURDAY, "倒数第四个周六");
+        }
+        assertEquals("阵亡将士纪念日", provider.getHoliday(2024, 5, 27));
+        assertEquals("阵亡将士纪念日", provider.getHoliday(2021, 5, 31));
+    }
+
+    @Test
+    public void firstRuleWinsOnSameDay() throws IOException {
+        HolidayProvider provider = HolidayProvider.load(new StringReader(
+                "fixed 10 1 国庆节\n"
+                + "fixed 10 1 另一个节日\n"
+                + "lunar 8 15 中秋节\n"));
+        /** 2020年中秋节为10月1日 */
+        assertEquals("国庆节", provider.getHoliday(2020, 10, 1));
+        assertEquals("中秋节", provider.getHoliday(2021, 9, 21));
+        provider = HolidayProvider.load(new StringReader("lunar 8 15 中秋节\nfixed 10 1 国庆节\n"));
+        assertEquals("中秋节", provider.getHoliday(2020, 10, 1));
+    }
+
+    @Test
+    public void loadReportsLineNumber() throws IOException {
+        assertLoadFails("# 注释\n\nfixed 13 1 没有13月\n", "line 3: ");
+        assertLoadFails("fixed 1 1 元旦\nholiday 1 1 未知规则\n", "line 2: ");
+        assertLoadFails("weekday 5 x 0 母亲节\n", "line 1: ");
+        assertLoadFails("weekday 5 6 0 第六个周日\n", "line 1: ");
+        assertLoadFails("lunar 1 31 没有三十一\n", "line 1: ");
+        assertLoadFails("term 24 0 没有这个节气\n", "line 1: ");
+        assertLoadFails("fixed 1 1\n", "line 1: ");
+    }
+
+    private static void assertLoadFails(String text, String prefix) throws IOException {
+        try {
+            HolidayProvider.load(new StringReader(text));
+            fail("expected IllegalArgumentException for " + text);
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(prefix));
+        }
+    }
+
+    /**
+     * 从月末往前数第-n个指定星期几, 不存在时该月没有节日
+     */
+    private static void assertRule(HolidayProvider provider, int year, int month, int n, int dayOfWeek,
+                                   String label) {
+        GregorianCalendar calendar = new GregorianCalendar(year, month - 1, 1);
+        int monthDays = calendar.getActualMaximum(Calendar.DAY_OF_MONTH);
+        int expected = 0;
+        int found = 0;
+        for (int day = monthDays; day >= 1; day--) {
+            calendar.set(Calendar.DAY_OF_MONTH, day);
+            if (calendar.get(Calendar.DAY_OF_WEEK) == dayOfWeek && --found == n) {
+                expected = day;
+                break;
+            }
+        }
+        for (int day = 1; day <= monthDays; day++) {
+            assertEquals(year + "-" + month + "-" + day, day == expected ? label : "",
+                    provider.getHoliday(year, month, day));
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.dsw.calendar.utils;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * LunarEngine与CalendarUtil、SolarTermsUtil的逐日交叉校验, 以及与原有逐日累加算法的耗时对比
+ */
+public class LunarEngineTest {
+    /**
+     * 农历纪年与农历年的差, 与SolarTermsUtil一致
+     */
+    private static final int CHINESE_YEAR_OFFSET = 2697;
+
+    private static final int FIRST_DAY = DateUtils.toEpochDay(1900, 1, 31);
+
+    private static int lastDay() {
+        int day = FIRST_DAY;
+        while (LunarEngine.isSupported(day + 1)) {
+            day++;
+        }
+        return day;
+    }
+
+    @Test
+    public void everyDayIsContinuousAndConsistent() throws Exception {
+        int last = lastDay();
+        int[] grid = new int[42];
+        int previous = 0;
+        int monthLength = 0;
+        int[] ymd = new int[3];
+        for (int epochDay = FIRST_DAY; epochDay <= last; epochDay++) {
+            civil(epochDay, ymd);
+            int lunar = LunarEngine.toLunarOfEpochDay(epochDay);
+            assertEquals(lunar, LunarEngine.toLunar(ymd[0], ymd[1], ymd[2]));
+            assertEquals(lunar, CalendarUtil.toLunar(ymd[0], ymd[1], ymd[2]));
+            if (ymd[2] == 1 || epochDay == FIRST_DAY) {
+                LunarEngine.toLunarMonth(ymd[0], ymd[1], grid);
+            }
+            int year = LunarEngine.getYear(lunar);
+            int month = LunarEngine.getMonth(lunar);
+            int day = LunarEngine.getDay(lunar);
+            boolean leap = LunarEngine.isLeap(lunar);
+            int chineseYear = year + CHINESE_YEAR_OFFSET;
+            int chineseMonth = leap ? -month : month;
+            if (epochDay == FIRST_DAY) {
+                assertEquals(1900, year);
+                assertEquals(1, month);
+                assertEquals(1, day);
+            } else if (day == 1) {
+                /** 上个月的天数与两套接口给出的一致, 且按顺序进入下一个月 */
+                int prevYear = LunarEngine.getYear(previous);
+                int prevMonth = LunarEngine.getMonth(previous);
+                boolean prevLeap = LunarEngine.isLeap(previous);
+                int prevChineseMonth = prevLeap ? -prevMonth : prevMonth;
+                assertEquals(monthLength, LunarEngine.getDay(previous));
+                assertEquals(monthLength, LunarEngine.monthDays(prevYear, prevMonth, prevLeap));
+                assertEquals(monthLength,
+                        SolarTermsUtil.daysInChineseMonth(prevYear + CHINESE_YEAR_OFFSET, prevChineseMonth));
+                assertEquals(chineseMonth,
+                        SolarTermsUtil.nextChineseMonth(prevYear + CHINESE_YEAR_OFFSET, prevChineseMonth));
+                assertEquals(month == 1 && !leap ? prevYear + 1 : prevYear, year);
+                if (leap) {
+                    assertEquals(month, LunarEngine.leapMonth(year));
+                    assertEquals(month, prevMonth);
+                }
+            } else {
+                assertEquals(previous + 1, lunar);
+            }
+            monthLength = day;
+            assertTrue(LunarEngine.monthDays(year, month, leap) >= day);
+            assertTrue(SolarTermsUtil.daysInChineseMonth(chineseYear, chineseMonth) >= day);
+            /** 日历格子中该日期所在的位置 */
+            int firstOfMonth = epochDay - ymd[2] + 1;
+            int cell = ((firstOfMonth + 4) % 7 + 7) % 7 + ymd[2] - 1;
+            assertEquals(lunar, grid[cell]);
+            previous = lunar;
+        }
+        assertEquals(LunarEngine.MAX_YEAR, LunarEngine.getYear(previous));
+        assertEquals(12, LunarEngine.getMonth(previous));
+        int total = 0;
+        for (int year = LunarEngine.MIN_YEAR; year <= LunarEngine.MAX_YEAR; year++) {
+            total += LunarEngine.yearDays(year);
+        }
+        assertEquals(last - FIRST_DAY + 1, total);
+    }
+
+    @Test
+    public void knownDates() throws Exception {
+        assertLunar(2000, 2, 5, 2000, 1, false, 1);
+        assertLunar(2024, 2, 10, 2024, 1, false, 1);
+        assertLunar(2020, 5, 23, 2020, 4, true, 1);
+        assertLunar(2023, 3, 22, 2023, 2, true, 1);
+        /** 2033年闰十一月 */
+        assertLunar(2033, 12, 22, 2033, 11, true, 1);
+        assertLunar(2034, 2, 19, 2034, 1, false, 1);
+        assertLunar(1900, 9, 24, 1900, 8, true, 1);
+        assertLunar(2100, 2, 9, 2100, 1, false, 1);
+        assertEquals(0, LunarEngine.leapMonth(2100));
+    }
+
+    @Test
+    public void outOfRange() throws Exception {
+        assertFalse(LunarEngine.isSupported(FIRST_DAY - 1));
+        assertFalse(LunarEngine.isSupported(lastDay() + 1));
+        try {
+            LunarEngine.toLunar(1900, 1, 30);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        int[] grid = LunarEngine.toLunarMonth(1900, 1, new int[42]);
+        /** 1900年1月1日为周一 */
+        assertEquals(0, grid[30]);
+        assertEquals(LunarEngine.toLunar(1900, 1, 31), grid[31]);
+    }
+
+    /**
+     * 耗时对比: 换算1950~2049年的每一天
+     * 原CalendarUtil从1900年1月31日起逐年、逐月减去天数, 原SolarTermsUtil从1901年(或2000年)1月1日起
+     * 逐年、逐月累加公历天数后再逐月进位; 这里按原算法复现, 月份大小取自同一张表, 只比较算法本身
+     * 只在需要时手动运行, 平时跳过以免拖慢测试并输出耗时
+     */
+    @Ignore("benchmark, run manually")
+    @Test
+    public void benchmark() throws Exception {
+        int from = DateUtils.toEpochDay(1950, 1, 1);
+        int to = DateUtils.toEpochDay(2050, 1, 1);
+        int[] ymd = new int[3];
+        long sink = 0;
+        long[] best = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE};
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            for (int epochDay = from; epochDay < to; epochDay++) {
+                civil(epochDay, ymd);
+                sink += LunarEngine.toLunar(ymd[0], ymd[1], ymd[2]);
+            }
+            best[0] = Math.min(best[0], System.nanoTime() - start);
+            start = System.nanoTime();
+            for (int epochDay = from; epochDay < to; epochDay++) {
+                sink += legacyCalendarUtil(epochDay);
+            }
+            best[1] = Math.min(best[1], System.nanoTime() - start);
+            start = System.nanoTime();
+            for (int epochDay = from; epochDay < to; epochDay++) {
+                civil(epochDay, ymd);
+                sink += legacySolarTermsUtil(ymd[0], ymd[1], ymd[2]);
+            }
+            best[2] = Math.min(best[2], System.nanoTime() - start);
+        }
+        /** 复现的原算法与LunarEngine结果一致 */
+        for (int epochDay = from; epochDay < to; epochDay++) {
+            civil(epochDay, ymd);
+            int lunar = LunarEngine.toLunarOfEpochDay(epochDay);
+            assertEquals(lunar, legacyCalendarUtil(epochDay));
+            assertEquals(lunar + (CHINESE_YEAR_OFFSET << 10), legacySolarTermsUtil(ymd[0], ymd[1], ymd[2]));
+        }
+        int days = to - from;
+        System.out.println("LunarEngine.toLunar: " + best[0] / days + " ns/day");
+        System.out.println("CalendarUtil (year/month subtraction): " + best[1] / days + " ns/day, "
+                + best[1] / Math.max(best[0], 1) + "x");
+        System.out.println("SolarTermsUtil (walk from base date): " + best[2] / days + " ns/day, "
+                + best[2] / Math.max(best[0], 1) + "x");
+        assertTrue(sink != 0);
+    }
+
+    private static void assertLunar(int y, int m, int d, int year, int month, boolean leap, int day) {
+        int lunar = LunarEngine.toLunar(y, m, d);
+        assertEquals(year, LunarEngine.getYear(lunar));
+        assertEquals(month, LunarEngine.getMonth(lunar));
+        assertEquals(leap, LunarEngine.isLeap(lunar));
+        assertEquals(day, LunarEngine.getDay(lunar));
+    }
+
+    /**
+     * 原CalendarUtil的换算方式: 距1900年1月31日的天数逐年、逐月减去
+     */
+    private static int legacyCalendarUtil(int epochDay) {
+        int offset = epochDay - FIRST_DAY;
+        int year = LunarEngine.MIN_YEAR;
+        int daysOfYear;
+        while ((daysOfYear = LunarEngine.yearDays(year)) <= offset) {
+            offset -= daysOfYear;
+            year++;
+        }
+        int leapMonth = LunarEngine.leapMonth(year);
+        int month = 1;
+        boolean leap = false;
+        while (true) {
+            int days = LunarEngine.monthDays(year, month, leap);
+            if (offset < days) {
+                break;
+            }
+            offset -= days;
+            if (!leap && month == leapMonth) {
+                leap = true;
+            } else {
+                leap = false;
+                month++;
+            }
+        }
+        return year << 10 | (leap ? 1 : 0) << 9 | month << 5 | offset + 1;
+    }
+
+    /**
+     * 原SolarTermsUtil的换算方式: 从基准日累加公历天数, 再逐月进位
+     */
+    private static int legacySolarTermsUtil(int year, int month, int date) {
+        int startYear = 1901;
+        int chineseYear = 4597;
+        int chineseMonth = 11;
+        int chineseDate = 11;
+        if (year >= 2000) {
+            startYear = 2000;
+            chineseYear = 4696;
+            chineseMonth = 11;
+            chineseDate = 25;
+        }
+        int daysDiff = 0;
+        for (int i = startYear; i < year; i++) {
+            daysDiff += SolarTermsUtil.isGregorianLeapYear(i) ? 366 : 365;
+        }
+        for (int i = 1; i < month; i++) {
+            daysDiff += SolarTermsUtil.daysInGregorianMonth(year, i);
+        }
+        chineseDate += daysDiff + date - 1;
+        int lastDate = SolarTermsUtil.daysInChineseMonth(chineseYear, chineseMonth);
+        int nextMonth = SolarTermsUtil.nextChineseMonth(chineseYear, chineseMonth);
+        while (chineseDate > lastDate) {
+            if (Math.abs(nextMonth) < Math.abs(chineseMonth))
+                chineseYear++;
+            chineseMonth = nextMonth;
+            chineseDate -= lastDate;
+            lastDate = SolarTermsUtil.daysInChineseMonth(chineseYear, chineseMonth);
+            nextMonth = SolarTermsUtil.nextChineseMonth(chineseYear, chineseMonth);
+        }
+        return chineseYear << 10 | (chineseMonth < 0 ? 1 : 0) << 9 | Math.abs(chineseMonth) << 5 | chineseDate;
+    }
+
+    /**
+     * 距1970年1月1日的天数换算为公历年月日
+     */
+    private static void civil(int epochDay, int[] ymd) {
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int doe = z - era * 146097;
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int day = doy - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        ymd[0] = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        ymd[1] = month;
+        ymd[2] = day;
+    }
+}
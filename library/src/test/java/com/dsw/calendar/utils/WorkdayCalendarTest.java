@@ -0,0 +1,119 @@
+package com.dsw.calendar.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * WorkdayCalendar的文本解析、班优先于休以及工作日判断
+ */
+public class WorkdayCalendarTest {
+
+    @Test
+    public void rangesCanCrossMonthsAndLeapDays() throws IOException {
+        WorkdayCalendar calendar = WorkdayCalendar.load(new StringReader(
+                "# 注释\n"
+                + "\n"
+                + "2024 休 0228-0301 0930-1002\n"
+                + "2024 休 1231\n"
+                + "2023 班 0101\n"));
+        assertEquals(2023, calendar.getFirstYear());
+        assertEquals(2024, calendar.getLastYear());
+        assertEquals(WorkdayCalendar.NORMAL, calendar.getRest(2024, 2, 27));
+        assertEquals(WorkdayCalendar.REST, calendar.getRest(2024, 2, 28));
+        assertEquals(WorkdayCalendar.REST, calendar.getRest(2024, 2, 29));
+        assertEquals(WorkdayCalendar.REST, calendar.getRest(2024, 3, 1));
+        assertEquals(WorkdayCalendar.NORMAL, calendar.getRest(2024, 3, 2));
+        assertEquals(WorkdayCalendar.REST, calendar.getRest(2024, 9, 30));
+        assertEquals(WorkdayCalendar.REST, calendar.getRest(2024, 10, 2));
+        assertEquals(WorkdayCalendar.NORMAL, calendar.getRest(2024, 10, 3));
+        /** 第366天落在第6个long中 */
+        assertEquals(WorkdayCalendar.REST, calendar.getRest(2024, 12, 31));
+        assertEquals(WorkdayCalendar.WORK, calendar.getRest(2023, 1, 1));
+        assertEquals(WorkdayCalendar.NORMAL, calendar.getRest(2022, 1, 1));
+        assertEquals(WorkdayCalendar.NORMAL, calendar.getRest(2025, 1, 1));
+    }
+
+    @Test
+    public void workTakesPrecedenceOverRest() throws IOException {
+        WorkdayCalendar calendar = WorkdayCalendar.load(new StringReader(
+                "2024 班 0204\n"
+                + "2024 休 0201-0207\n"));
+        assertEquals(WorkdayCalendar.REST, calendar.getRest(2024, 2, 3));
+        assertEquals(WorkdayCalendar.WORK, calendar.getRest(2024, 2, 4));
+        assertTrue(calendar.isWorkday(2024, 2, 4));
+        assertFalse(calendar.isWorkday(2024, 2, 5));
+    }
+
+    @Test
+    public void isWorkdayFallsBackToWeekday() throws IOException {
+        WorkdayCalendar empty = WorkdayCalendar.load(new StringReader(""));
+        assertEquals(0, empty.getFirstYear());
+        assertEquals(-1, empty.getLastYear());
+        /** 2024年8月5日为周一 */
+        for (int day = 5; day <= 11; day++) {
+            assertEquals(day <= 9, empty.isWorkday(2024, 8, day));
+            assertEquals(WorkdayCalendar.NORMAL, empty.getRest(2024, 8, day));
+        }
+    }
+
+    @Test
+    public void defaultSchedule() {
+        WorkdayCalendar calendar = WorkdayCalendar.getDefault();
+        assertEquals(2020, calendar.getFirstYear());
+        assertEquals(2026, calendar.getLastYear());
+        /** 2024年元旦假期从2023年12月30日开始 */
+        assertTrue(calendar.isWorkday(2023, 12, 29));
+        assertEquals(WorkdayCalendar.REST, calendar.getRest(2023, 12, 30));
+        assertEquals(WorkdayCalendar.REST, calendar.getRest(2023, 12, 31));
+        assertEquals(WorkdayCalendar.REST, calendar.getRest(2024, 1, 1));
+        /** 2024年春节: 2月4日(周日)上班, 2月10日~17日放假 */
+        assertTrue(calendar.isWorkday(2024, 2, 4));
+        assertFalse(calendar.isWorkday(2024, 2, 15));
+        /** 2026年春节: 2月14日(周六)、2月28日(周六)上班 */
+        assertEquals(WorkdayCalendar.WORK, calendar.getRest(2026, 2, 14));
+        assertEquals(WorkdayCalendar.REST, calendar.getRest(2026, 2, 15));
+        assertEquals(WorkdayCalendar.REST, calendar.getRest(2026, 2, 23));
+        assertEquals(WorkdayCalendar.WORK, calendar.getRest(2026, 2, 28));
+        assertFalse(calendar.isWorkday(2026, 10, 7));
+        assertTrue(calendar.isWorkday(2026, 10, 10));
+    }
+
+    @Test
+    public void defaultWorkDaysAreWeekends() {
+        WorkdayCalendar calendar = WorkdayCalendar.getDefault();
+        for (int year = calendar.getFirstYear(); year <= calendar.getLastYear(); year++) {
+            for (int month = 1; month <= 12; month++) {
+                for (int day = 1; day <= SolarTermsUtil.daysInGregorianMonth(year, month); day++) {
+                    if (calendar.getRest(year, month, day) == WorkdayCalendar.WORK) {
+                        int week = ((DateUtils.toEpochDay(year, month, day) + 4) % 7 + 7) % 7;
+                        assertTrue(year + "-" + month + "-" + day, week == 0 || week == 6);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void loadReportsLineNumber() throws IOException {
+        assertLoadFails("# 注释\n2024 休 0230\n", "line 2: ");
+        assertLoadFails("2024 休 0101\n2024 放 0102\n", "line 2: ");
+        assertLoadFails("2024 班\n", "line 1: ");
+        assertLoadFails("2024 休 0105-0101\n", "line 1: ");
+        assertLoadFails("2024 休 101\n", "line 1: ");
+        assertLoadFails("二〇二四 休 0101\n", "line 1: ");
+        assertLoadFails("2023 休 0229\n", "line 1: ");
+    }
+
+    private static void assertLoadFails(String text, String prefix) throws IOException {
+        try {
+            WorkdayCalendar.load(new StringReader(text));
+            fail("expected IllegalArgumentException for " + text);
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(prefix));
+        }
+    }
+}